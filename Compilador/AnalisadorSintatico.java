@@ -1,6 +1,10 @@
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class AnalisadorSintatico {
     private Token tokenAtual;
@@ -12,14 +16,63 @@ public class AnalisadorSintatico {
     private List<Token> pilhaPos = new ArrayList<>();
     private List<Token> bufferExpr;
 
+    // modo com quadros: as variáveis de procedimentos e funções ficam no quadro da ativação
+    // (ENTR/SAIR na entrada e na saída, LDL/STL para acessar), em vez de ALLOC/DALLOC copiando
+    // endereços fixos a cada chamada. O quadro de cada nível de aninhamento é apontado por uma
+    // célula de quadro, reservada logo depois das variáveis globais.
+    private final boolean quadros;
+    private int inicioQuadros;   // endereço da célula de quadro do nível 2
+    private int celulasQuadro;   // quantas células de quadro o programa usa
+
+    // chamada de procedimento/função como comando, candidata a chamada de cauda
+    private static class Chamada {
+        final int indice;         // linha do CALL
+        final String rotulo;
+        final boolean aninhada;   // chamada declarada dentro da sub-rotina atual (vê as locais dela)
+
+        Chamada(int indice, String rotulo, boolean aninhada) {
+            this.indice = indice;
+            this.rotulo = rotulo;
+            this.aninhada = aninhada;
+        }
+    }
+
+    // sub-rotina sendo compilada (pilha: as aninhadas ficam por cima)
+    private static class Subrotina {
+        final int nivel;          // escopo do bloco da sub-rotina
+        final List<Chamada> chamadas = new ArrayList<>();
+        // locais com atribuição até aqui (nos comandos da própria sub-rotina ou por uma chamada
+        // incondicional a uma aninhada que sempre as atribui), e locais de sub-rotinas externas
+        // que esta sempre atribui
+        final Set<Simbolo> atribuidas = new HashSet<>();
+        final Set<Simbolo> externas = new HashSet<>();
+        final Set<Simbolo> avisadas = new HashSet<>();
+        // alguma local pode ser lida antes de receber valor (aqui ou numa aninhada)
+        boolean leSemValor;
+
+        Subrotina(int nivel) {
+            this.nivel = nivel;
+        }
+    }
+
+    private List<Subrotina> subrotinas = new ArrayList<>();
+    private Map<String, Set<Simbolo>> externasPorRotulo = new HashMap<>(); // sub-rotinas já compiladas
+    private int condicional;      // profundidade dentro de 'se'/'enquanto'
+    private int fimComandos;      // linha logo depois dos comandos do último bloco (início do epílogo)
+
 
     private String novoRotulo() {
         return "L" + (rotulo++);
     }
 
     public AnalisadorSintatico(AnalisadorLexico lexico, TabelaSimbolos tabela) throws IOException {
+        this(lexico, tabela, false);
+    }
+
+    public AnalisadorSintatico(AnalisadorLexico lexico, TabelaSimbolos tabela, boolean quadros) throws IOException {
         this.lexico = lexico;
         this.tabela = tabela;
+        this.quadros = quadros;
         proximoToken();
     }
 
@@ -36,6 +89,12 @@ public class AnalisadorSintatico {
 
     // <programa> ::= programa <identificador> ; <bloco> .
     public void analisaPrograma() throws IOException {
+        analisa();
+        salvarCodigoGeradoEmArquivo();
+    }
+
+    // análise e geração de código, sem gravar o codigo_mvd.obj (os benchmarks medem só isto)
+    List<String> analisa() throws IOException {
         if (tokenAtual.getSimbolo() != TokenSimbolo.sprograma)
             erro("Palavra-chave 'programa' esperada");
         
@@ -74,14 +133,18 @@ public class AnalisadorSintatico {
 
             proximoToken();
             System.out.println("Programa valido!");
-            salvarCodigoGeradoEmArquivo();
 
         } else {
             erro("Ponto final esperado apos 'fim' do programa principal");
         }
+        return gc.getCodigo();
     }
 
     private void analisaBloco() throws IOException {
+        if (quadros) {
+            analisaBlocoQuadros();
+            return;
+        }
         int inicioEscopo = tabela.getNivelAtual();
         int enderecoAntes = tabela.getEnderecoAtual();
         
@@ -96,6 +159,7 @@ public class AnalisadorSintatico {
             
         analisaSubrotinas();
         analisaComandos();
+        fimComandos = gc.tamanho();
 
             //// >>> ALTERAÇÃO: desalocar variáveis locais
         if (nVars > 0)
@@ -104,6 +168,114 @@ public class AnalisadorSintatico {
             tabela.sairEscopo();
     }
 
+    // bloco no modo com quadros. O principal reserva as globais e as células de quadro; um
+    // procedimento ou função numera as suas variáveis a partir de 0 (deslocamento no quadro).
+    // A reserva é gerada depois das sub-rotinas: o JMP sobre elas cai nela, e no principal
+    // o número de células de quadro já é conhecido.
+    private void analisaBlocoQuadros() throws IOException {
+        boolean principal = tabela.getNivelAtual() == 0;
+        int enderecoAntes = tabela.getEnderecoAtual();
+
+        tabela.entrarEscopo();
+        int nivel = tabela.getNivelAtual();
+        if (!principal)
+            tabela.setEnderecoInicial(0);
+        analisaEtVariaveis();
+
+        int nVars = principal ? tabela.getEnderecoAtual() - enderecoAntes : tabela.getEnderecoAtual();
+        if (principal)
+            inicioQuadros = tabela.getEnderecoAtual();
+        else if (nVars > 0)
+            celulasQuadro = Math.max(celulasQuadro, nivel - 1);
+
+        analisaSubrotinas();
+
+        if (principal) {
+            int total = nVars + celulasQuadro;
+            if (total > 0)
+                gc.gera("", "ALLOC", enderecoAntes + "", total + "");
+            analisaComandos();
+            if (total > 0)
+                gc.gera("", "DALLOC", enderecoAntes + "", total + "");
+        } else {
+            String celula = celulaQuadro(nivel) + "";
+            if (nVars > 0)
+                gc.gera("", "ENTR", celula, nVars + "");
+            analisaComandos();
+            fimComandos = gc.tamanho();
+            if (nVars > 0)
+                gc.gera("", "SAIR", celula, nVars + "");
+            // as globais declaradas depois continuam de onde estavam
+            tabela.setEnderecoInicial(enderecoAntes);
+        }
+
+        tabela.sairEscopo();
+    }
+
+    private int celulaQuadro(int nivel) {
+        return inicioQuadros + nivel - 2;
+    }
+
+    // variável local de procedimento/função (no quadro) no modo com quadros
+    private boolean noQuadro(Simbolo s) {
+        return quadros && s.getEscopo() >= 2;
+    }
+
+    // empilha o valor da variável
+    private void geraCarrega(Simbolo s) {
+        registraLeitura(s);
+        if (noQuadro(s)) {
+            gc.gera("", "LDL", celulaQuadro(s.getEscopo()) + "", s.getEndereco() + "");
+        } else
+            gc.gera("", "LDV", s.getEndereco() + "", "");
+    }
+
+    // desempilha na variável
+    private void geraArmazena(Simbolo s) {
+        registraAtribuicao(s);
+        if (noQuadro(s)) {
+            gc.gera("", "STL", celulaQuadro(s.getEscopo()) + "", s.getEndereco() + "");
+        } else
+            gc.gera("", "STR", s.getEndereco() + "", "");
+    }
+
+    private void registraAtribuicao(Simbolo s) {
+        if (subrotinas.isEmpty())
+            return;
+        Subrotina atual = subrotinas.get(subrotinas.size() - 1);
+        if (s.getEscopo() == atual.nivel)
+            atual.atribuidas.add(s);
+        else if (s.getEscopo() < atual.nivel && condicional == 0)
+            atual.externas.add(s);
+    }
+
+    // sub-rotina em compilação da qual 's' é local (null para as globais)
+    private Subrotina subrotinaDona(Simbolo s) {
+        for (Subrotina sub : subrotinas) {
+            if (sub.nivel == s.getEscopo())
+                return sub;
+        }
+        return null;
+    }
+
+    // ler uma local sem atribuição antes lê o valor com que ela começa a ativação: no modo
+    // absoluto, o da ativação anterior; no modo com quadros, o que estava na pilha (ex.: 'soma'
+    // em testes_sintatico/gera1.txt dá outro resultado com --quadros, daí o aviso). Uma leitura
+    // numa sub-rotina aninhada conta como sem valor, a menos que a aninhada já tenha atribuído.
+    private void registraLeitura(Simbolo s) {
+        Subrotina dona = subrotinaDona(s);
+        if (dona == null)
+            return;
+        Subrotina atual = subrotinas.get(subrotinas.size() - 1);
+        if (dona == atual ? dona.atribuidas.contains(s) : atual.externas.contains(s))
+            return;
+        dona.leSemValor = true;
+        if (!quadros || dona != atual || !dona.avisadas.add(s))
+            return;
+        System.out.println("Aviso (--quadros) na linha " + tokenAtual.getLinha() + ": variavel local '"
+                + s.getNome() + "' pode ser lida antes de receber valor nesta ativacao");
+    }
+
     private void analisaEtVariaveis() throws IOException {
         if (tokenAtual.getSimbolo() == TokenSimbolo.svar) {
             proximoToken();
@@ -221,10 +393,15 @@ public class AnalisadorSintatico {
             erro("Ponto e virgula esperado apos cabecalho de procedimento");
 
         proximoToken();
+        subrotinas.add(new Subrotina(tabela.getNivelAtual() + 1));
         analisaBloco();
+        int epilogo = fimComandos;
 
         //// >>> ALTERAÇÃO: fim de procedimento
         gc.gera("", "RETURN", "", "");
+        Subrotina sub = subrotinas.remove(subrotinas.size() - 1);
+        externasPorRotulo.put("L" + rot, sub.externas);
+        eliminaChamadasDeCauda(sub, epilogo);
     }
 
     private void analisaDeclaracaoFuncao() throws IOException {
@@ -291,12 +468,61 @@ public class AnalisadorSintatico {
         //-------------------------------
         // Bloco da função
         //-------------------------------
+        subrotinas.add(new Subrotina(tabela.getNivelAtual() + 1));
         analisaBloco();  // já faz ALLOC/DALLOC automaticamente
+        int epilogo = fimComandos;
 
         //-------------------------------
         // Return da função
         //-------------------------------
         gc.gera("", "RETURN", "", "");
+        Subrotina sub = subrotinas.remove(subrotinas.size() - 1);
+        externasPorRotulo.put(rotuloFuncao, sub.externas);
+        eliminaChamadasDeCauda(sub, epilogo);
+    }
+
+    // chamadas de cauda: um CALL depois do qual só resta o epílogo (DALLOC/SAIR e RETURN) vira
+    // o epílogo seguido de JMP para a sub-rotina chamada. Ela ocupa o lugar da atual na pilha
+    // e o seu RETURN volta direto para quem chamou a atual, então recursões em cauda (também
+    // mútuas) rodam com pilha constante e sem o par CALL/RETURN.
+    private void eliminaChamadasDeCauda(Subrotina sub, int epilogo) {
+        List<String> linhasEpilogo = new ArrayList<>(gc.getCodigo().subList(epilogo, gc.tamanho() - 1));
+        // de trás para frente: cada troca desloca só as linhas que vêm depois dela
+        for (int k = sub.chamadas.size() - 1; k >= 0; k--) {
+            Chamada ch = sub.chamadas.get(k);
+            // uma sub-rotina aninhada pode usar as locais desta, que o epílogo já liberou
+            if (ch.aninhada && !linhasEpilogo.isEmpty())
+                continue;
+            // com o epílogo antes do salto, as locais desta voltam ao valor de antes da ativação
+            // (e não ficam com o último, como depois do CALL): só vale se nenhuma é lida sem valor
+            if (sub.leSemValor && !linhasEpilogo.isEmpty())
+                continue;
+            if (!gc.seguePara(ch.indice, epilogo))
+                continue;
+            // JMP para o próprio índice só avançaria (recursão sem nada antes da chamada)
+            if (linhasEpilogo.isEmpty() && gc.rotuloLogoAntes(ch.rotulo, ch.indice))
+                continue;
+            List<String> salto = new ArrayList<>(linhasEpilogo);
+            salto.add("JMP " + ch.rotulo);
+            gc.substitui(ch.indice, salto);
+            epilogo += linhasEpilogo.size();
+        }
+    }
+
+    // CALL de um comando; dentro de sub-rotina fica registrado como candidato a chamada de cauda
+    private void geraChamada(Simbolo s) {
+        String rot = "L" + s.getEndereco();
+        if (!subrotinas.isEmpty()) {
+            Subrotina atual = subrotinas.get(subrotinas.size() - 1);
+            atual.chamadas.add(new Chamada(gc.tamanho(), rot, s.getEscopo() >= atual.nivel));
+            // o que a chamada sempre atribui conta como atribuído aqui (recursão ainda não tem)
+            Set<Simbolo> efeito = externasPorRotulo.get(rot);
+            if (efeito != null && condicional == 0) {
+                for (Simbolo v : efeito)
+                    registraAtribuicao(v);
+            }
+        }
+        gc.gera("", "CALL", rot, "");
     }
 
 
@@ -356,7 +582,6 @@ public class AnalisadorSintatico {
             erro("Identificador '" + lex + "' nao declarado");
 
         String tipo = s.getTipo();
-        int rot = s.getEndereco();     // para funções/procedimentos
 
         proximoToken();
 
@@ -391,7 +616,7 @@ public class AnalisadorSintatico {
             if (tipo.startsWith("funcao")) {
                 gc.gera("", "STR", "0", "");  // Funções retornam em M[0]
             } else {
-                gc.gera("", "STR", s.getEndereco()+"", "");
+                geraArmazena(s);
             }
             return;
         }
@@ -400,7 +625,7 @@ public class AnalisadorSintatico {
         // CHAMADA DE PROCEDIMENTO
         // ------------------------------
         if (tipo.equals("procedimento")) {
-            gc.gera("", "CALL", "L" + rot, "");
+            geraChamada(s);
             return;
         }
 
@@ -408,7 +633,7 @@ public class AnalisadorSintatico {
         // CHAMADA DE FUNÇÃO COMO COMANDO
         // ------------------------------
         if (tipo.equals("funcao_inteiro") || tipo.equals("funcao_booleano")) {
-            gc.gera("", "CALL", "L" + rot, "");
+            geraChamada(s);
             return;  // valor fica em M[0]
         }
 
@@ -442,6 +667,8 @@ public class AnalisadorSintatico {
 
         gc.gera("", "JMPF", Lelse, "");
 
+        condicional++;
+        Set<Simbolo> antes = atribuidasAgora();
         analisaComando();
         if (tokenAtual.getSimbolo() == TokenSimbolo.ssenao) {
             proximoToken();
@@ -452,6 +679,8 @@ public class AnalisadorSintatico {
         } else {
             gc.gera(Lelse, "NULL", "", "");
         }
+        restauraAtribuidas(antes);
+        condicional--;
     }
 
     private void analisaEnquanto() throws IOException {
@@ -477,12 +706,28 @@ public class AnalisadorSintatico {
         if (tokenAtual.getSimbolo() != TokenSimbolo.sfaca)
             erro("'faca' esperado apos expressao do 'enquanto'");
         proximoToken();
+        condicional++;
+        Set<Simbolo> antes = atribuidasAgora();
         analisaComando();
+        restauraAtribuidas(antes);
+        condicional--;
 
         gc.gera("", "JMP", L1, "");
         gc.gera(L2, "NULL", "", "");
     }
 
+    // uma atribuição dentro de 'se'/'enquanto' só vale até o fim do comando (pode não executar)
+    private Set<Simbolo> atribuidasAgora() {
+        if (subrotinas.isEmpty())
+            return null;
+        return new HashSet<>(subrotinas.get(subrotinas.size() - 1).atribuidas);
+    }
+
+    private void restauraAtribuidas(Set<Simbolo> antes) {
+        if (antes != null)
+            subrotinas.get(subrotinas.size() - 1).atribuidas.retainAll(antes);
+    }
+
     private void analisaLeia() throws IOException {
         proximoToken();
         if (tokenAtual.getSimbolo() != TokenSimbolo.sabre_parenteses)
@@ -499,7 +744,7 @@ public class AnalisadorSintatico {
 
             //// >>> GERAR RD + STR
         gc.gera("", "RD", "", "");
-        gc.gera("", "STR", s.getEndereco()+"", "");
+        geraArmazena(s);
 
         proximoToken();
         if (tokenAtual.getSimbolo() != TokenSimbolo.sfecha_parenteses)
@@ -521,7 +766,7 @@ public class AnalisadorSintatico {
         if (!"inteiro".equals(s.getTipo()))
             erro("Comando 'escreva' so pode ser usado com variaveis inteiras");
         //// >>> GERAR LDV + PRN
-        gc.gera("", "LDV", s.getEndereco()+"", "");
+        geraCarrega(s);
         gc.gera("", "PRN", "", "");
         proximoToken();
         if (tokenAtual.getSimbolo() != TokenSimbolo.sfecha_parenteses)
@@ -1013,7 +1258,7 @@ public class AnalisadorSintatico {
                 }
                 // variável
                 else {
-                    gc.gera("", "LDV", sim.getEndereco() + "", "");
+                    geraCarrega(sim);
                 }
 
                 continue;
@@ -27,6 +27,52 @@ public class GeradorCodigo {
         return codigo;
     }
 
+    public int tamanho() {
+        return codigo.size();
+    }
+
+    // posição da linha "rot NULL" que define o rótulo, ou -1
+    public int posicaoRotulo(String rot) {
+        return codigo.indexOf(rot + " NULL");
+    }
+
+    // a partir da linha seguinte a 'indice', seguindo só rótulos e JMPs, chega-se à linha 'destino'
+    // (nada mais é executado no caminho)
+    public boolean seguePara(int indice, int destino) {
+        int j = indice + 1;
+        for (int k = 0; k < codigo.size(); k++) {
+            if (j == destino) return true;
+            if (j >= codigo.size()) return false;
+            String[] partes = codigo.get(j).split(" ");
+            if (partes.length == 2 && partes[1].equals("NULL")) {
+                j++;
+            } else if (partes.length == 2 && partes[0].equals("JMP")) {
+                j = posicaoRotulo(partes[1]);
+                if (j < 0) return false;
+            } else {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    // só linhas de rótulo entre a definição de 'rot' e 'indice': um salto em 'indice' para
+    // 'rot' cairia nele mesmo (e a VM trata isso como "avança uma instrução")
+    public boolean rotuloLogoAntes(String rot, int indice) {
+        int r = posicaoRotulo(rot);
+        if (r < 0 || r >= indice) return false;
+        for (int j = r + 1; j < indice; j++) {
+            if (!codigo.get(j).endsWith(" NULL")) return false;
+        }
+        return true;
+    }
+
+    // troca a linha 'indice' pelas linhas dadas
+    public void substitui(int indice, List<String> linhas) {
+        codigo.remove(indice);
+        codigo.addAll(indice, linhas);
+    }
+
     public void imprimir() {
         for (String linha : codigo)
             System.out.println(linha);
@@ -3,14 +3,19 @@ import java.io.IOException;
 public class Main {
     public static void main(String[] args) {
         if (args.length == 0) {
-            System.out.println("Uso: java Main <caminho_do_arquivo>");
+            System.out.println("Uso: java Main <caminho_do_arquivo> [--quadros]");
+            System.out.println("  --quadros: locais de procedimentos e funcoes no quadro da ativacao. Uma local");
+            System.out.println("  lida antes de receber valor nao tem o valor da ativacao anterior (como no modo");
+            System.out.println("  normal), e sim o que estava na pilha; o compilador avisa esses casos.");
             return;
         }
         String caminhoArquivo = args[0];
+        // --quadros: locais de procedimentos no quadro da ativação (ENTR/SAIR/LDL/STL)
+        boolean quadros = args.length > 1 && args[1].equals("--quadros");
         try {
             AnalisadorLexico lexico = new AnalisadorLexico(caminhoArquivo);
             TabelaSimbolos tabela = new TabelaSimbolos();
-            AnalisadorSintatico parser = new AnalisadorSintatico(lexico, tabela);
+            AnalisadorSintatico parser = new AnalisadorSintatico(lexico, tabela, quadros);
             parser.analisaPrograma();
             System.out.println("\nAnalise concluida. Tabela de Simbolos:");
             tabela.imprimir();
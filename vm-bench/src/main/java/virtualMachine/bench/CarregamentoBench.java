@@ -0,0 +1,57 @@
+package virtualMachine.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import virtualMachine.Decodificador;
+import virtualMachine.LinhaVM;
+import virtualMachine.Ligador;
+import virtualMachine.Programa;
+import virtualMachine.VirtualMachine;
+
+import java.io.IOException;
+import java.util.List;
+
+// parse do .obj (listaLinhas) e decodificação + ligação; carregaPrograma é o caminho
+// completo atual (leitura direta dos bytes, sem LinhaVM)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CarregamentoBench {
+
+    @Param({"gera.obj", "gera3.obj", "gera4.obj", "gera5.obj", "gera6.obj", "gera7.obj", "geralu.obj", "ger2.obj"})
+    public String arquivo;
+
+    private VirtualMachine vm;
+    private List<LinhaVM> linhas;
+
+    @Setup
+    public void prepara() {
+        vm = new VirtualMachine(Recursos.programa(arquivo).toString());
+        linhas = vm.listaLinhas();
+    }
+
+    @Benchmark
+    public List<LinhaVM> listaLinhas() {
+        return vm.listaLinhas();
+    }
+
+    @Benchmark
+    public Programa decodificaELiga() {
+        return Ligador.liga(Decodificador.decodifica(linhas));
+    }
+
+    @Benchmark
+    public Programa carregaPrograma() throws IOException {
+        return vm.carregaPrograma();
+    }
+}
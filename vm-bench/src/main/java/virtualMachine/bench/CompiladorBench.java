@@ -0,0 +1,98 @@
+package virtualMachine.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.PrintStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+// léxico e sintático do Compilador. As classes dele estão no pacote padrão (não dá para
+// importar), então são acessadas por MethodHandle. O sintático é medido por
+// AnalisadorSintatico.analisa, que para antes de gravar o codigo_mvd.obj: o número não inclui
+// a escrita em disco e o benchmark não deixa arquivo no diretório atual.
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompiladorBench {
+
+    @Param({"gera1.txt", "sint1.txt", "sint5.txt"})
+    public String fonte;
+
+    private String caminho;
+    private MethodHandle novoLexico;
+    private MethodHandle pegaToken;
+    private MethodHandle simbolo;
+    private MethodHandle fechar;
+    private MethodHandle novaTabela;
+    private MethodHandle novoSintatico;
+    private MethodHandle analisa;
+    private Object fimArquivo;
+
+    @Setup
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void prepara() throws Exception {
+        caminho = Recursos.raiz().resolve("Compilador/testes_sintatico").resolve(fonte).toString();
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        Class<?> lexico = Class.forName("AnalisadorLexico");
+        Class<?> token = Class.forName("Token");
+        Class<?> tokenSimbolo = Class.forName("TokenSimbolo");
+        Class<?> tabela = Class.forName("TabelaSimbolos");
+        Class<?> sintatico = Class.forName("AnalisadorSintatico");
+
+        novoLexico = lookup.findConstructor(lexico, MethodType.methodType(void.class, String.class));
+        pegaToken = lookup.findVirtual(lexico, "pegaToken", MethodType.methodType(token));
+        fechar = lookup.findVirtual(lexico, "fechar", MethodType.methodType(void.class));
+        // Token/TokenSimbolo não são públicas
+        Method getSimbolo = token.getDeclaredMethod("getSimbolo");
+        getSimbolo.setAccessible(true);
+        simbolo = lookup.unreflect(getSimbolo);
+        fimArquivo = Enum.valueOf((Class) tokenSimbolo, "sfim_arquivo");
+        novaTabela = lookup.findConstructor(tabela, MethodType.methodType(void.class));
+        novoSintatico = lookup.findConstructor(sintatico, MethodType.methodType(void.class, lexico, tabela));
+        // analisa também não é pública (visível só no pacote padrão)
+        Method analisaSemGravar = sintatico.getDeclaredMethod("analisa");
+        analisaSemGravar.setAccessible(true);
+        analisa = lookup.unreflect(analisaSemGravar);
+    }
+
+    // AnalisadorLexico.pegaToken até o fim do arquivo
+    @Benchmark
+    public int lexico() throws Throwable {
+        Object lex = novoLexico.invoke(caminho);
+        int tokens = 0;
+        try {
+            while (simbolo.invoke(pegaToken.invoke(lex)) != fimArquivo) tokens++;
+        } finally {
+            fechar.invoke(lex);
+        }
+        return tokens;
+    }
+
+    // AnalisadorSintatico.analisa (léxico + sintático + geração de código, sem gravar o .obj)
+    @Benchmark
+    public Object sintatico() throws Throwable {
+        PrintStream original = System.out;
+        System.setOut(Recursos.DESCARTE);
+        Object lex = novoLexico.invoke(caminho);
+        try {
+            Object parser = novoSintatico.invoke(lex, novaTabela.invoke());
+            return analisa.invoke(parser);
+        } finally {
+            fechar.invoke(lex);
+            System.setOut(original);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package virtualMachine.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import virtualMachine.ContextoExecucao;
+import virtualMachine.Interpretador;
+import virtualMachine.ModoExecucao;
+import virtualMachine.Programa;
+import virtualMachine.SaidaNula;
+import virtualMachine.VirtualMachine;
+
+import java.io.IOException;
+
+// despacho do interpretador nos programas de exemplo e nos núcleos sintéticos
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExecucaoBench {
+
+    @Param({"gera.obj", "gera3.obj", "gera5.obj", "geralu.obj", "laco", "recursao",
+            "recursao-locais", "recursao-quadros"})
+    public String programa;
+
+    @Param({"SWITCH", "ENCADEADO"})
+    public ModoExecucao modo;
+
+    @Param({"false"})
+    public boolean jit;
+
+    private String caminho;
+    private Programa carregado;
+    private Interpretador interpretador;
+
+    @Setup
+    public void prepara() throws IOException {
+        caminho = Recursos.programa(programa).toString();
+        carregado = new VirtualMachine(caminho).carregaPrograma();
+        interpretador = new Interpretador(modo, jit);
+    }
+
+    // só a execução (programa já carregado)
+    @Benchmark
+    public long executa() {
+        ContextoExecucao c = new ContextoExecucao(Recursos.entradas(), SaidaNula.INSTANCIA);
+        c.setMensagens(Recursos.DESCARTE);
+        interpretador.executa(carregado, c);
+        return c.getPassos();
+    }
+
+    // caminho completo do analisaObj: lê o arquivo, decodifica, liga e executa
+    @Benchmark
+    public long analisaObj() {
+        VirtualMachine vm = new VirtualMachine(caminho);
+        vm.setEntrada(Recursos.entradas());
+        vm.setSaidaVM(SaidaNula.INSTANCIA);
+        vm.setMensagens(Recursos.DESCARTE);
+        vm.setModo(modo);
+        vm.setJit(jit);
+        vm.analisaObj();
+        return vm.getPassos();
+    }
+}
@@ -0,0 +1,57 @@
+package virtualMachine.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import virtualMachine.MemoriaVM;
+import virtualMachine.Opcodes;
+
+// operações de pilha da MemoriaVM e a operação binária (pop y, pop x, push x op y)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MemoriaBench {
+
+    private static final int PROFUNDIDADE = 64;
+
+    private MemoriaVM m;
+    private int valor = 7;
+
+    @Setup
+    public void prepara() {
+        m = new MemoriaVM();
+        m.garante(2000);
+    }
+
+    @Benchmark
+    public int pushPop() {
+        m.setS(-1);
+        for (int k = 0; k < PROFUNDIDADE; k++) m.push(valor + k);
+        int soma = 0;
+        for (int k = 0; k < PROFUNDIDADE; k++) soma += m.pop();
+        return soma;
+    }
+
+    // mesmo trabalho do binOp do interpretador: checagem, dois pops, aplica, push
+    @Benchmark
+    public int binOp() {
+        m.setS(-1);
+        m.push(valor);
+        for (int k = 0; k < PROFUNDIDADE; k++) {
+            m.push(k + 1);
+            if (m.getS() < 1) throw new RuntimeException("Stack underflow em binOp");
+            int y = m.pop();
+            int x = m.pop();
+            m.push(Opcodes.aplica(Opcodes.ADD + (k & 3), x, y));
+        }
+        return m.pop();
+    }
+}
@@ -0,0 +1,97 @@
+package virtualMachine.bench;
+
+import virtualMachine.EntradaVM;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.OptionalInt;
+
+// arquivos e entradas comuns aos benchmarks. Os caminhos são relativos à raiz do
+// repositório (rodar de lá, ou passar -Dmvd.raiz=...).
+final class Recursos {
+
+    static final PrintStream DESCARTE = new PrintStream(OutputStream.nullOutputStream());
+
+    // mesmos valores usados nos testes manuais dos gera*.obj
+    private static final int[] ENTRADAS = {3, 4, 5, 8, 2, 7, 12, 1, 2, 20};
+
+    // núcleos sintéticos (layout com tabulação, como o OtimizadorPeephole grava)
+    static final String LACO =
+            "\tSTART\n\tALLOC 0 3\n\tLDC 0\n\tSTR 1\n\tLDC 0\n\tSTR 2\n"
+            + "L1\tNULL\n\tLDV 1\n\tLDC 70000\n\tCME\n\tJMPF L2\n"
+            + "\tLDV 2\n\tLDV 1\n\tADD\n\tSTR 2\n\tLDV 1\n\tLDC 1\n\tADD\n\tSTR 1\n\tJMP L1\n"
+            + "L2\tNULL\n\tLDV 2\n\tPRN\n\tDALLOC 0 3\n\tHLT\n";
+
+    // fib(20) recursivo: n em M[1] (salvo com ALLOC/DALLOC a cada chamada), retorno em M[0]
+    static final String RECURSAO =
+            "\tSTART\n\tALLOC 0 2\n\tLDC 20\n\tSTR 1\n\tCALL LF\n\tLDV 0\n\tPRN\n\tDALLOC 0 2\n\tHLT\n"
+            + "LF\tNULL\n\tALLOC 1 1\n\tLDV 1\n\tLDC 2\n\tCME\n\tJMPF LR\n\tLDV 1\n\tSTR 0\n\tJMP LX\n"
+            + "LR\tNULL\n\tLDV 1\n\tLDC 1\n\tSUB\n\tSTR 1\n\tCALL LF\n\tLDV 0\n"
+            + "\tLDV 1\n\tLDC 1\n\tSUB\n\tSTR 1\n\tCALL LF\n\tLDV 0\n\tADD\n\tSTR 0\n"
+            + "LX\tNULL\n\tDALLOC 1 1\n\tRETURN\n";
+
+    // fib(20) com 8 variáveis locais (n e mais 7), como o compilador gera para um procedimento
+    // maior: a cada chamada ALLOC/DALLOC copiam as 8 posições (M[2..9]) para a pilha e de volta
+    static final String RECURSAO_LOCAIS =
+            "\tSTART\n\tALLOC 0 2\n\tLDC 20\n\tSTR 1\n\tCALL LF\n\tLDV 0\n\tPRN\n\tDALLOC 0 2\n\tHLT\n"
+            + "LF\tNULL\n\tALLOC 2 8\n\tLDV 1\n\tSTR 2\n\tLDV 2\n\tLDC 2\n\tCME\n\tJMPF LR\n"
+            + "\tLDV 2\n\tSTR 0\n\tJMP LX\n"
+            + "LR\tNULL\n\tLDV 2\n\tLDC 1\n\tSUB\n\tSTR 1\n\tCALL LF\n\tLDV 0\n"
+            + "\tLDV 2\n\tLDC 2\n\tSUB\n\tSTR 1\n\tCALL LF\n\tLDV 0\n\tADD\n\tSTR 0\n"
+            + "LX\tNULL\n\tDALLOC 2 8\n\tRETURN\n";
+
+    // o mesmo com quadros (compilador com --quadros): as 8 locais ficam no quadro da chamada,
+    // apontado pela célula M[2], e entrar/sair do quadro não copia nada
+    static final String RECURSAO_QUADROS =
+            "\tSTART\n\tALLOC 0 3\n\tLDC 20\n\tSTR 1\n\tCALL LF\n\tLDV 0\n\tPRN\n\tDALLOC 0 3\n\tHLT\n"
+            + "LF\tNULL\n\tENTR 2 8\n\tLDV 1\n\tSTL 2 0\n\tLDL 2 0\n\tLDC 2\n\tCME\n\tJMPF LR\n"
+            + "\tLDL 2 0\n\tSTR 0\n\tJMP LX\n"
+            + "LR\tNULL\n\tLDL 2 0\n\tLDC 1\n\tSUB\n\tSTR 1\n\tCALL LF\n\tLDV 0\n"
+            + "\tLDL 2 0\n\tLDC 2\n\tSUB\n\tSTR 1\n\tCALL LF\n\tLDV 0\n\tADD\n\tSTR 0\n"
+            + "LX\tNULL\n\tSAIR 2 8\n\tRETURN\n";
+
+    private Recursos() { }
+
+    static Path raiz() {
+        return Path.of(System.getProperty("mvd.raiz", "."));
+    }
+
+    // núcleos sintéticos ("laco", "recursao"...) viram arquivos temporários; o resto é caminho na raiz
+    static Path programa(String nome) {
+        try {
+            switch (nome) {
+                case "laco": return temporario(LACO);
+                case "recursao": return temporario(RECURSAO);
+                case "recursao-locais": return temporario(RECURSAO_LOCAIS);
+                case "recursao-quadros": return temporario(RECURSAO_QUADROS);
+                default: return raiz().resolve(nome);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Path temporario(String texto) throws IOException {
+        Path p = Files.createTempFile("mvd-bench", ".obj");
+        p.toFile().deleteOnExit();
+        Files.writeString(p, texto, StandardCharsets.UTF_8);
+        return p;
+    }
+
+    // repete a sequência de entradas indefinidamente (laços de leitura sempre terminam)
+    static EntradaVM entradas() {
+        return new EntradaVM() {
+            private int k;
+
+            @Override
+            public OptionalInt le() {
+                return OptionalInt.of(ENTRADAS[k++ % ENTRADAS.length]);
+            }
+        };
+    }
+}
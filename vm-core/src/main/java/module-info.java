@@ -0,0 +1,3 @@
+module vm.core {
+    exports virtualMachine;
+}
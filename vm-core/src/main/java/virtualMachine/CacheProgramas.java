@@ -0,0 +1,220 @@
+package virtualMachine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// cache de programas já decodificados e ligados, pela hash (SHA-256) do conteúdo do arquivo
+// mais a variante de carregamento (fusão, peephole): o mesmo conteúdo em outro caminho também
+// é acerto. Antes de reler o arquivo, um pré-teste por caminho + tamanho + data de modificação
+// reaproveita a hash já calculada. Programa é imutável, então a mesma instância é devolvida
+// para todas as execuções.
+//
+// Remoção LRU por número de programas e por total de instruções. As mensagens do carregamento
+// (resumo da fusão/peephole) ficam guardadas e são repetidas a cada acerto, para a saída ser a
+// mesma com ou sem cache. Pode ser compartilhado entre threads.
+public final class CacheProgramas {
+
+    // carrega de verdade (falta no cache), escrevendo suas mensagens em 'mensagens'
+    public interface Carregador {
+        Programa carrega(PrintStream mensagens) throws IOException;
+    }
+
+    // data de modificação muito perto da leitura: o arquivo pode mudar de novo sem mudar a
+    // data (resolução do sistema de arquivos), então esse caminho sempre recalcula a hash
+    private static final long MARGEM_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    private static final class Entrada {
+        final Programa programa;
+        final String mensagens;
+
+        Entrada(Programa programa, String mensagens) {
+            this.programa = programa;
+            this.mensagens = mensagens;
+        }
+    }
+
+    // o que o pré-teste sabe de um caminho
+    private static final class Visto {
+        final long tamanho;
+        final long modificado;
+        final boolean confiavel;
+        final String hash;
+
+        Visto(long tamanho, long modificado, boolean confiavel, String hash) {
+            this.tamanho = tamanho;
+            this.modificado = modificado;
+            this.confiavel = confiavel;
+            this.hash = hash;
+        }
+    }
+
+    private final int maxProgramas;
+    private final long maxInstrucoes;
+    // ordem de acesso: o primeiro é o menos usado recentemente
+    private final LinkedHashMap<String, Entrada> entradas = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<Path, Visto> caminhos;
+    private long instrucoes;
+
+    private long acertos;
+    private long acertosCaminho;
+    private long faltas;
+    private long remocoes;
+
+    public CacheProgramas(int maxProgramas, long maxInstrucoes) {
+        if (maxProgramas < 1 || maxInstrucoes < 1) {
+            throw new IllegalArgumentException("limites do cache devem ser positivos");
+        }
+        this.maxProgramas = maxProgramas;
+        this.maxInstrucoes = maxInstrucoes;
+        int maxCaminhos = maxProgramas * 4;
+        this.caminhos = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, Visto> mais) {
+                return size() > maxCaminhos;
+            }
+        };
+    }
+
+    // programa do arquivo na variante pedida; se o arquivo não puder ser lido aqui, carrega
+    // sem cache (o carregador reporta o erro como sempre)
+    public Programa obtem(Path arquivo, String variante, Carregador carregador, PrintStream mensagens)
+            throws IOException {
+        Path caminho = arquivo.toAbsolutePath().normalize();
+        long tamanho;
+        long modificado;
+        String hash = null;
+        try {
+            BasicFileAttributes at = Files.readAttributes(caminho, BasicFileAttributes.class);
+            tamanho = at.size();
+            modificado = at.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+        } catch (IOException e) {
+            return carregador.carrega(mensagens);
+        }
+
+        synchronized (this) {
+            Visto v = caminhos.get(caminho);
+            if (v != null && v.confiavel && v.tamanho == tamanho && v.modificado == modificado) {
+                Entrada e = entradas.get(chave(v.hash, variante));
+                if (e != null) {
+                    acertos++;
+                    acertosCaminho++;
+                    mensagens.print(e.mensagens);
+                    return e.programa;
+                }
+                hash = v.hash;
+            }
+        }
+
+        long lida = System.currentTimeMillis();
+        if (hash == null) {
+            try {
+                hash = hash(caminho);
+            } catch (IOException e) {
+                return carregador.carrega(mensagens);
+            }
+        }
+        Visto visto = new Visto(tamanho, modificado,
+                TimeUnit.MILLISECONDS.toNanos(lida) - modificado > MARGEM_NANOS, hash);
+        String chave = chave(hash, variante);
+
+        synchronized (this) {
+            caminhos.put(caminho, visto);
+            Entrada e = entradas.get(chave);
+            if (e != null) {
+                acertos++;
+                mensagens.print(e.mensagens);
+                return e.programa;
+            }
+            faltas++;
+        }
+
+        ByteArrayOutputStream texto = new ByteArrayOutputStream();
+        Programa programa;
+        try (PrintStream captura = new PrintStream(texto, true, StandardCharsets.UTF_8)) {
+            try {
+                programa = carregador.carrega(captura);
+            } finally {
+                mensagens.print(texto.toString(StandardCharsets.UTF_8));
+            }
+        }
+
+        // mudou durante o carregamento: o programa pode não ser o do conteúdo da hash
+        BasicFileAttributes depois = Files.readAttributes(caminho, BasicFileAttributes.class);
+        if (depois.size() != tamanho || depois.lastModifiedTime().to(TimeUnit.NANOSECONDS) != modificado) {
+            synchronized (this) {
+                caminhos.remove(caminho);
+            }
+            return programa;
+        }
+        guarda(chave, new Entrada(programa, texto.toString(StandardCharsets.UTF_8)));
+        return programa;
+    }
+
+    private synchronized void guarda(String chave, Entrada nova) {
+        // maior que o cache inteiro: não entra (nem expulsa os outros)
+        if (nova.programa.tamanho() > maxInstrucoes) return;
+        Entrada antiga = entradas.put(chave, nova);
+        if (antiga != null) instrucoes -= antiga.programa.tamanho();
+        instrucoes += nova.programa.tamanho();
+        Iterator<Entrada> it = entradas.values().iterator();
+        while (entradas.size() > maxProgramas || instrucoes > maxInstrucoes) {
+            Entrada velha = it.next();
+            instrucoes -= velha.programa.tamanho();
+            it.remove();
+            remocoes++;
+        }
+    }
+
+    private static String chave(String hash, String variante) {
+        return hash + '/' + variante;
+    }
+
+    private static String hash(Path arquivo) throws IOException {
+        MessageDigest sha;
+        try {
+            sha = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+        try (FileChannel ch = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            sha.update(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        }
+        return HexFormat.of().formatHex(sha.digest());
+    }
+
+    // esvazia o cache (as métricas continuam)
+    public synchronized void limpa() {
+        entradas.clear();
+        caminhos.clear();
+        instrucoes = 0;
+    }
+
+    public synchronized long getAcertos() { return acertos; }
+    // acertos resolvidos só pelo pré-teste (sem ler o arquivo)
+    public synchronized long getAcertosCaminho() { return acertosCaminho; }
+    public synchronized long getFaltas() { return faltas; }
+    // programas expulsos pelos limites
+    public synchronized long getRemocoes() { return remocoes; }
+    public synchronized int getProgramas() { return entradas.size(); }
+    public synchronized long getInstrucoes() { return instrucoes; }
+
+    public synchronized String resumo() {
+        return "Cache de programas: " + acertos + " acertos (" + acertosCaminho + " pelo caminho), "
+                + faltas + " faltas, " + remocoes + " removidos, " + entradas.size() + " programas, "
+                + instrucoes + " instruções";
+    }
+}
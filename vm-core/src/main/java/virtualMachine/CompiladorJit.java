@@ -0,0 +1,520 @@
+package virtualMachine;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+// traduz uma região quente do programa (laço a partir de um rótulo) para bytecode JVM.
+// Gera uma classe com um único método
+//     static int executa(int[] mem, long[] estado)
+// que opera direto no vetor da MemoriaVM. estado = {s, passos, limite de passos, tamanho,
+// menor e maior endereço escrito na pilha ou por STL}. O método devolve o índice da
+// instrução onde o interpretador deve continuar. Os endereços fixos de STR/STRK da região
+// ficam em escritas() (com a faixa acima, as páginas sujas para o PontoControle).
+//
+// Só entram na região instruções sem efeito externo (LDC, LDV, STR, STRK, LDL, STL,
+// aritméticas, comparações, JMP, JMPF, NULL); qualquer outra (RD, PRN, CALL, ALLOC...) vira
+// saída para o interpretador. No início de cada bloco básico o código confere limite de passos,
+// pilha vazia e crescimento da memória; se algo falhar, sai para o interpretador nesse
+// mesmo ponto, que executa com as verificações e mensagens de sempre. LDL/STL sempre começam
+// um bloco, e o endereço da local (calculado da célula de quadro) é conferido ali.
+final class CompiladorJit {
+
+    static final String NOME_CLASSE = "virtualMachine/RegiaoJit";
+    static final String DESCRITOR = "([I[J)I";
+
+    private static final int MAX_INSTRUCOES = 2000;
+    private static final int MAX_BYTES = 30000;
+
+    // locais do método gerado
+    private static final int L_MEM = 0;
+    private static final int L_ESTADO = 1;
+    private static final int L_S = 2;
+    private static final int L_PASSOS = 3;  // long (3,4)
+    private static final int L_LIMITE = 5;  // long (5,6)
+    private static final int L_TAMANHO = 7;
+    private static final int L_LOCAL = 8;   // endereço da local do LDL/STL que abre o bloco
+    private static final int L_ESCRITA_MIN = 10;
+    private static final int L_ESCRITA_MAX = 11;
+
+    private final Programa p;
+    private final int n;
+    // endereços de STR/STRK da última região compilada
+    private int[] escritas = new int[0];
+
+    CompiladorJit(Programa p) {
+        this.p = p;
+        this.n = p.op.length;
+    }
+
+    // opcode original (superinstrução = o LDV que ela substitui)
+    private int base(int i) {
+        int op = p.op[i];
+        return Opcodes.ehFundida(op) ? Opcodes.LDV : op;
+    }
+
+    private static boolean suportada(int op) {
+        switch (op) {
+            case Opcodes.LDC: case Opcodes.LDV: case Opcodes.STR: case Opcodes.STRK:
+            case Opcodes.LDL: case Opcodes.STL:
+            case Opcodes.ADD: case Opcodes.SUB: case Opcodes.MULT: case Opcodes.DIVI:
+            case Opcodes.INV: case Opcodes.NEG: case Opcodes.AND: case Opcodes.OR:
+            case Opcodes.CME: case Opcodes.CMA: case Opcodes.CEQ: case Opcodes.CDIF:
+            case Opcodes.CMEQ: case Opcodes.CMAQ:
+            case Opcodes.JMP: case Opcodes.JMPF: case Opcodes.NULL:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // destino efetivo do salto em i (salto para o próprio índice só avança, igual ao interpretador)
+    private int destino(int i) {
+        int d = p.a[i];
+        return d == i ? i + 1 : d;
+    }
+
+    int[] escritas() { return escritas; }
+
+    // bytes da classe, ou null se a região não puder ser compilada
+    byte[] compila(int cabeca) {
+        boolean[] regiao = new boolean[n];
+        List<Integer> pendentes = new ArrayList<>();
+        pendentes.add(cabeca);
+        int total = 0;
+        int maxEndereco = -1;
+        Set<Integer> fixas = new TreeSet<>();
+        while (!pendentes.isEmpty()) {
+            int i = pendentes.remove(pendentes.size() - 1);
+            if (i < 0 || i >= n || regiao[i] || !suportada(base(i))) continue;
+            if (total == MAX_INSTRUCOES) continue;
+            int op = base(i);
+            if (op == Opcodes.LDV || op == Opcodes.STR || op == Opcodes.STRK
+                    || op == Opcodes.LDL || op == Opcodes.STL) {
+                if (p.a[i] < 0) return null; // endereço negativo: deixa o interpretador acusar o erro
+                maxEndereco = Math.max(maxEndereco, p.a[i]);
+                if (op == Opcodes.STR || op == Opcodes.STRK) fixas.add(p.a[i]);
+            }
+            regiao[i] = true;
+            total++;
+            if (op == Opcodes.JMP) {
+                pendentes.add(destino(i));
+            } else if (op == Opcodes.JMPF) {
+                pendentes.add(destino(i));
+                pendentes.add(i + 1);
+            } else {
+                pendentes.add(i + 1);
+            }
+        }
+        if (!regiao[cabeca]) return null;
+
+        // líderes de bloco: cabeça, alvos de salto, instrução após salto, entrada vinda de fora
+        boolean[] lider = new boolean[n];
+        lider[cabeca] = true;
+        for (int i = 0; i < n; i++) {
+            if (!regiao[i]) continue;
+            int op = base(i);
+            if (op == Opcodes.JMP || op == Opcodes.JMPF) {
+                int d = destino(i);
+                if (d < n && regiao[d]) lider[d] = true;
+                if (i + 1 < n && regiao[i + 1]) lider[i + 1] = true;
+            }
+            if (i == 0 || !regiao[i - 1]) lider[i] = true;
+            if (op == Opcodes.LDL || op == Opcodes.STL) lider[i] = true;
+        }
+
+        Codigo c = new Codigo();
+        Rotulo[] blocos = new Rotulo[n];
+        for (int i = 0; i < n; i++) if (lider[i]) blocos[i] = new Rotulo();
+
+        // prólogo: carrega estado nos locais
+        c.u1(0x2b); c.u1(0x03); c.u1(0x2f); c.u1(0x88); c.istore(L_S);           // s = (int) estado[0]
+        c.u1(0x2b); c.u1(0x04); c.u1(0x2f); c.lstore(L_PASSOS);                  // passos = estado[1]
+        c.u1(0x2b); c.u1(0x05); c.u1(0x2f); c.lstore(L_LIMITE);                  // limite = estado[2]
+        c.u1(0x2b); c.u1(0x06); c.u1(0x2f); c.u1(0x88); c.istore(L_TAMANHO);     // tamanho = (int) estado[3]
+        c.constante(Integer.MAX_VALUE); c.istore(L_ESCRITA_MIN);                 // faixa escrita vazia
+        c.constante(Integer.MIN_VALUE); c.istore(L_ESCRITA_MAX);
+        // endereços constantes precisam já existir na memória (garante não mudaria nada)
+        Rotulo sairNaCabeca = new Rotulo();
+        c.constante(maxEndereco);
+        c.iload(L_TAMANHO);
+        c.salto(0xa2, sairNaCabeca);                                             // if maxEndereco >= tamanho
+        c.salto(0xa7, blocos[cabeca]);
+
+        List<Rotulo> saidas = new ArrayList<>();
+        List<Integer> pcsSaida = new ArrayList<>();
+        saidas.add(sairNaCabeca);
+        pcsSaida.add(cabeca);
+
+        for (int inicio = 0; inicio < n; inicio++) {
+            if (!lider[inicio]) continue;
+
+            // percorre o bloco: tamanho, pilha mínima exigida, crescimento máximo e posições
+            // da pilha escritas (relativas a s na entrada)
+            int fim = inicio;
+            int d = 0;
+            int precisa = Integer.MIN_VALUE;
+            int maxD = 0;
+            int escritaMin = Integer.MAX_VALUE;
+            int escritaMax = Integer.MIN_VALUE;
+            while (true) {
+                int op = base(fim);
+                int exige = exigencia(op);
+                if (exige != Integer.MIN_VALUE) precisa = Math.max(precisa, exige - d);
+                d += efeito(op);
+                maxD = Math.max(maxD, d);
+                if (escrevePilha(op)) {
+                    escritaMin = Math.min(escritaMin, d);
+                    escritaMax = Math.max(escritaMax, d);
+                }
+                boolean termina = op == Opcodes.JMP || op == Opcodes.JMPF
+                        || fim + 1 >= n || !regiao[fim + 1] || lider[fim + 1];
+                if (termina) break;
+                fim++;
+            }
+            int tamanhoBloco = fim - inicio + 1;
+
+            c.marca(blocos[inicio]);
+            Rotulo sair = new Rotulo();
+            saidas.add(sair);
+            pcsSaida.add(inicio);
+            // if (passos + tamanhoBloco > limite) sai
+            c.lload(L_PASSOS); c.constante(tamanhoBloco); c.u1(0x85); c.u1(0x61);
+            c.lload(L_LIMITE); c.u1(0x94); c.salto(0x9d, sair);
+            // if (s < precisa) sai (o interpretador lança o erro de pilha vazia)
+            if (precisa != Integer.MIN_VALUE) {
+                c.iload(L_S); c.constante(precisa); c.salto(0xa1, sair);
+            }
+            // if (s + maxD >= tamanho) sai (o interpretador faz a memória crescer)
+            if (maxD > 0) {
+                c.iload(L_S); c.constante(maxD); c.u1(0x60); c.iload(L_TAMANHO); c.salto(0xa2, sair);
+            }
+            // local = mem[a] + b; if (local < 0 || local >= tamanho) sai
+            int primeiro = base(inicio);
+            if (primeiro == Opcodes.LDL || primeiro == Opcodes.STL) {
+                c.u1(0x2a); c.constante(p.a[inicio]); c.u1(0x2e); c.constante(p.b[inicio]); c.u1(0x60);
+                c.istore(L_LOCAL);
+                c.iload(L_LOCAL); c.salto(0x9b, sair);
+                c.iload(L_LOCAL); c.iload(L_TAMANHO); c.salto(0xa2, sair);
+                if (primeiro == Opcodes.STL) {
+                    estendeEscritas(c, L_LOCAL, 0, 0);
+                }
+            }
+            // o bloco roda inteiro daqui em diante: acrescenta o que ele escreve na pilha
+            if (escritaMin <= escritaMax) {
+                estendeEscritas(c, L_S, escritaMin, escritaMax);
+            }
+            // passos += tamanhoBloco
+            c.lload(L_PASSOS); c.constante(tamanhoBloco); c.u1(0x85); c.u1(0x61); c.lstore(L_PASSOS);
+
+            for (int i = inicio; i <= fim; i++) {
+                emite(c, i, blocos, regiao, saidas, pcsSaida);
+            }
+            int ultimo = base(fim);
+            if (ultimo != Opcodes.JMP) {
+                // continua na instrução seguinte
+                vaiPara(c, fim + 1, blocos, regiao, saidas, pcsSaida);
+            }
+            if (c.tamanho() > MAX_BYTES) return null;
+        }
+
+        // saídas: grava s e passos em estado e devolve o pc
+        for (int k = 0; k < saidas.size(); k++) {
+            c.marca(saidas.get(k));
+            c.u1(0x2b); c.u1(0x03); c.iload(L_S); c.u1(0x85); c.u1(0x50);        // estado[0] = s
+            c.u1(0x2b); c.u1(0x04); c.lload(L_PASSOS); c.u1(0x50);               // estado[1] = passos
+            c.u1(0x2b); c.u1(0x07); c.iload(L_ESCRITA_MIN); c.u1(0x85); c.u1(0x50);   // estado[4] = escrita mínima
+            c.u1(0x2b); c.u1(0x08); c.iload(L_ESCRITA_MAX); c.u1(0x85); c.u1(0x50);   // estado[5] = escrita máxima
+            c.constante(pcsSaida.get(k));
+            c.u1(0xac);                                                         // ireturn
+        }
+        if (c.tamanho() > MAX_BYTES) return null;
+
+        escritas = fixas.stream().mapToInt(Integer::intValue).toArray();
+        return c.classe();
+    }
+
+    // escritaMin = min(escritaMin, local + de); escritaMax = max(escritaMax, local + ate)
+    private static void estendeEscritas(Codigo c, int local, int de, int ate) {
+        Rotulo pulaMin = new Rotulo();
+        c.iload(local); c.constante(de); c.u1(0x60);
+        c.iload(L_ESCRITA_MIN); c.salto(0xa2, pulaMin);                         // if v >= min pula
+        c.iload(local); c.constante(de); c.u1(0x60); c.istore(L_ESCRITA_MIN);
+        c.marca(pulaMin);
+        Rotulo pulaMax = new Rotulo();
+        c.iload(local); c.constante(ate); c.u1(0x60);
+        c.iload(L_ESCRITA_MAX); c.salto(0xa4, pulaMax);                         // if v <= max pula
+        c.iload(local); c.constante(ate); c.u1(0x60); c.istore(L_ESCRITA_MAX);
+        c.marca(pulaMax);
+    }
+
+    // instruções que escrevem mem[s] depois de executar (o novo topo)
+    private static boolean escrevePilha(int op) {
+        switch (op) {
+            case Opcodes.LDC: case Opcodes.LDV: case Opcodes.LDL:
+            case Opcodes.INV: case Opcodes.NEG:
+                return true;
+            default:
+                return Opcodes.ehBinaria(op);
+        }
+    }
+
+    // s mínimo que a instrução exige antes de executar (como nas verificações do interpretador)
+    private static int exigencia(int op) {
+        switch (op) {
+            case Opcodes.STR: case Opcodes.STRK: case Opcodes.STL: case Opcodes.JMPF:
+            case Opcodes.INV: case Opcodes.NEG:
+                return 0;
+            case Opcodes.ADD: case Opcodes.SUB: case Opcodes.MULT: case Opcodes.DIVI:
+            case Opcodes.AND: case Opcodes.OR: case Opcodes.CME: case Opcodes.CMA:
+            case Opcodes.CEQ: case Opcodes.CDIF: case Opcodes.CMEQ: case Opcodes.CMAQ:
+                return 1;
+            default:
+                return Integer.MIN_VALUE;
+        }
+    }
+
+    private static int efeito(int op) {
+        switch (op) {
+            case Opcodes.LDC: case Opcodes.LDV: case Opcodes.LDL: return 1;
+            case Opcodes.STR: case Opcodes.STL: case Opcodes.JMPF: return -1;
+            default: return Opcodes.ehBinaria(op) ? -1 : 0;
+        }
+    }
+
+    private void vaiPara(Codigo c, int destino, Rotulo[] blocos, boolean[] regiao,
+                         List<Rotulo> saidas, List<Integer> pcsSaida) {
+        if (destino < n && regiao[destino]) {
+            c.salto(0xa7, blocos[destino]);
+        } else {
+            Rotulo sair = new Rotulo();
+            saidas.add(sair);
+            pcsSaida.add(destino);
+            c.salto(0xa7, sair);
+        }
+    }
+
+    private void emite(Codigo c, int i, Rotulo[] blocos, boolean[] regiao,
+                       List<Rotulo> saidas, List<Integer> pcsSaida) {
+        int op = base(i);
+        int a = p.a[i];
+        switch (op) {
+            case Opcodes.NULL:
+                break;
+            case Opcodes.LDC:
+                // s++; mem[s] = a
+                c.iinc(L_S, 1); c.u1(0x2a); c.iload(L_S); c.constante(a); c.u1(0x4f);
+                break;
+            case Opcodes.LDV:
+                // s++; mem[s] = mem[a]
+                c.iinc(L_S, 1); c.u1(0x2a); c.iload(L_S); c.u1(0x2a); c.constante(a); c.u1(0x2e); c.u1(0x4f);
+                break;
+            case Opcodes.STR:
+                // mem[a] = mem[s]; s--
+                c.u1(0x2a); c.constante(a); c.u1(0x2a); c.iload(L_S); c.u1(0x2e); c.u1(0x4f); c.iinc(L_S, -1);
+                break;
+            case Opcodes.STRK:
+                c.u1(0x2a); c.constante(a); c.u1(0x2a); c.iload(L_S); c.u1(0x2e); c.u1(0x4f);
+                break;
+            case Opcodes.LDL:
+                // s++; mem[s] = mem[local] (local conferido no início do bloco)
+                c.iinc(L_S, 1); c.u1(0x2a); c.iload(L_S); c.u1(0x2a); c.iload(L_LOCAL); c.u1(0x2e); c.u1(0x4f);
+                break;
+            case Opcodes.STL:
+                // mem[local] = mem[s]; s--
+                c.u1(0x2a); c.iload(L_LOCAL); c.u1(0x2a); c.iload(L_S); c.u1(0x2e); c.u1(0x4f); c.iinc(L_S, -1);
+                break;
+            case Opcodes.INV:
+                // mem[s] = -mem[s]
+                c.u1(0x2a); c.iload(L_S); c.u1(0x2a); c.iload(L_S); c.u1(0x2e); c.u1(0x74); c.u1(0x4f);
+                break;
+            case Opcodes.NEG:
+                // mem[s] = 1 - mem[s]
+                c.u1(0x2a); c.iload(L_S); c.u1(0x04); c.u1(0x2a); c.iload(L_S); c.u1(0x2e); c.u1(0x64); c.u1(0x4f);
+                break;
+            case Opcodes.JMP:
+                vaiPara(c, destino(i), blocos, regiao, saidas, pcsSaida);
+                break;
+            case Opcodes.JMPF: {
+                // cond = mem[s]; s--; if (cond == 0) salta
+                c.u1(0x2a); c.iload(L_S); c.u1(0x2e); c.iinc(L_S, -1);
+                Rotulo segue = new Rotulo();
+                c.salto(0x9a, segue);                                           // ifne segue
+                vaiPara(c, destino(i), blocos, regiao, saidas, pcsSaida);
+                c.marca(segue);
+                break;
+            }
+            default: {
+                // binária: mem[s-1] = mem[s-1] op mem[s]; s--
+                c.u1(0x2a); c.iload(L_S); c.u1(0x04); c.u1(0x64);
+                c.u1(0x2a); c.iload(L_S); c.u1(0x04); c.u1(0x64); c.u1(0x2e);
+                c.u1(0x2a); c.iload(L_S); c.u1(0x2e);
+                if (op == Opcodes.ADD) c.u1(0x60);
+                else if (op == Opcodes.SUB) c.u1(0x64);
+                else if (op == Opcodes.MULT) c.u1(0x68);
+                else c.aplica(op);
+                c.u1(0x4f);
+                c.iinc(L_S, -1);
+                break;
+            }
+        }
+    }
+
+    // ---------- montagem do arquivo .class ----------
+
+    private static final class Rotulo {
+        int posicao = -1;
+        final List<Integer> usos = new ArrayList<>();
+    }
+
+    private static final class Codigo {
+        private byte[] buf = new byte[256];
+        private int pos;
+
+        private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+        private int entradas = 1;
+        private final Map<String, Integer> indices = new HashMap<>();
+        private int metodoAplica = -1;
+        private final List<Rotulo> todosRotulos = new ArrayList<>();
+
+        int tamanho() { return pos; }
+
+        void u1(int v) {
+            if (pos == buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+            buf[pos++] = (byte) v;
+        }
+
+        void u2(int v) { u1(v >> 8); u1(v); }
+
+        void iload(int local) { u1(0x15); u1(local); }
+        void istore(int local) { u1(0x36); u1(local); }
+        void lload(int local) { u1(0x16); u1(local); }
+        void lstore(int local) { u1(0x37); u1(local); }
+        void iinc(int local, int delta) { u1(0x84); u1(local); u1(delta); }
+
+        void constante(int v) {
+            if (v >= -1 && v <= 5) u1(0x03 + v);
+            else if (v >= Byte.MIN_VALUE && v <= Byte.MAX_VALUE) { u1(0x10); u1(v); }
+            else if (v >= Short.MIN_VALUE && v <= Short.MAX_VALUE) { u1(0x11); u2(v); }
+            else { u1(0x13); u2(inteiro(v)); }
+        }
+
+        // invokestatic Opcodes.aplica(op, x, y) com x e y já na pilha
+        void aplica(int op) {
+            // pilha: ..., índice, x, y -> precisa de op antes de x: guarda y e x em locais temporários
+            u1(0x36); u1(9);   // istore 9 (y)
+            u1(0x36); u1(8);   // istore 8 (x)
+            constante(op);
+            iload(8);
+            iload(9);
+            if (metodoAplica < 0) metodoAplica = metodo("virtualMachine/Opcodes", "aplica", "(III)I");
+            u1(0xb8); u2(metodoAplica);
+        }
+
+        void salto(int opcode, Rotulo r) {
+            int origem = pos;
+            u1(opcode);
+            if (r.usos.isEmpty()) todosRotulos.add(r);
+            r.usos.add(origem);
+            u2(0);
+        }
+
+        void marca(Rotulo r) {
+            r.posicao = pos;
+        }
+
+        // ---------- constant pool ----------
+
+        private int entrada(String chave, byte[] bytes) {
+            Integer k = indices.get(chave);
+            if (k != null) return k;
+            pool.writeBytes(bytes);
+            indices.put(chave, entradas);
+            return entradas++;
+        }
+
+        int utf8(String s) {
+            byte[] b = s.getBytes(StandardCharsets.UTF_8);
+            byte[] e = new byte[3 + b.length];
+            e[0] = 1; e[1] = (byte) (b.length >> 8); e[2] = (byte) b.length;
+            System.arraycopy(b, 0, e, 3, b.length);
+            return entrada("U" + s, e);
+        }
+
+        int classe(String nome) {
+            int u = utf8(nome);
+            return entrada("C" + nome, new byte[] { 7, (byte) (u >> 8), (byte) u });
+        }
+
+        int inteiro(int v) {
+            return entrada("I" + v, new byte[] { 3, (byte) (v >> 24), (byte) (v >> 16), (byte) (v >> 8), (byte) v });
+        }
+
+        int metodo(String dono, String nome, String descritor) {
+            int c = classe(dono);
+            int un = utf8(nome);
+            int ud = utf8(descritor);
+            int nt = entrada("N" + nome + descritor, new byte[] { 12, (byte) (un >> 8), (byte) un, (byte) (ud >> 8), (byte) ud });
+            return entrada("M" + dono + nome + descritor, new byte[] { 10, (byte) (c >> 8), (byte) c, (byte) (nt >> 8), (byte) nt });
+        }
+
+        byte[] classe() {
+            // resolve os deslocamentos dos saltos (relativos ao opcode)
+            for (Rotulo r : todosRotulos) {
+                for (int origem : r.usos) {
+                    int desloc = r.posicao - origem;
+                    buf[origem + 1] = (byte) (desloc >> 8);
+                    buf[origem + 2] = (byte) desloc;
+                }
+            }
+            int esta = classe(NOME_CLASSE);
+            int superClasse = classe("java/lang/Object");
+            int nome = utf8("executa");
+            int descritor = utf8(DESCRITOR);
+            int code = utf8("Code");
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            escreve4(out, 0xCAFEBABE);
+            escreve2(out, 0);
+            escreve2(out, 49);            // versão 49: dispensa StackMapTable
+            escreve2(out, entradas);
+            out.writeBytes(pool.toByteArray());
+            escreve2(out, 0x0011);        // public final
+            escreve2(out, esta);
+            escreve2(out, superClasse);
+            escreve2(out, 0);             // interfaces
+            escreve2(out, 0);             // campos
+            escreve2(out, 1);             // métodos
+            escreve2(out, 0x0009);        // public static
+            escreve2(out, nome);
+            escreve2(out, descritor);
+            escreve2(out, 1);             // atributos do método
+            escreve2(out, code);
+            escreve4(out, 12 + pos);
+            escreve2(out, 8);             // max_stack
+            escreve2(out, 12);            // max_locals
+            escreve4(out, pos);
+            out.write(buf, 0, pos);
+            escreve2(out, 0);             // exceções
+            escreve2(out, 0);             // atributos do Code
+            escreve2(out, 0);             // atributos da classe
+            return out.toByteArray();
+        }
+
+        private static void escreve2(ByteArrayOutputStream out, int v) {
+            out.write(v >> 8);
+            out.write(v);
+        }
+
+        private static void escreve4(ByteArrayOutputStream out, int v) {
+            escreve2(out, v >>> 16);
+            escreve2(out, v & 0xFFFF);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package virtualMachine;
+
+import java.io.PrintStream;
+import java.util.Objects;
+import java.util.OptionalInt;
+
+// estado de uma execução: memória e pilha, entrada/saída e o resultado (passos, limite).
+// É barato de criar; o Programa (imutável) fica de fora e pode ser compartilhado entre
+// vários contextos rodando ao mesmo tempo.
+public final class ContextoExecucao {
+
+    private final MemoriaVM memoria;
+    private final EntradaVM entrada;
+    // cópia em memória da saída (getSaida) + destino plugável
+    private final SaidaMemoria saida = new SaidaMemoria();
+    private final SaidaVM destino;
+    private PrintStream mensagens = System.out;
+
+    // preenchidos pelo Interpretador (ponto de retomada quando a execução é em fatias)
+    int pc;
+    long passos;
+    long despachos;
+    boolean limiteExcedido;
+    boolean terminado;
+    // linhas escritas na saída e valores lidos por RD (posição para o PontoControle)
+    long linhasSaida;
+    long lidas;
+    ExecutorJit jit;
+    ExecucaoEncadeada encadeada;
+    ExecucaoVerificada verificada;
+    // opcionais (null = desligados)
+    Perfilador perfilador;
+    Rastro rastro;
+
+    public ContextoExecucao(EntradaVM entrada, SaidaVM console) {
+        this(entrada, console, MemoriaVM.LIMITE_PADRAO);
+    }
+
+    public ContextoExecucao(EntradaVM entrada, SaidaVM console, int limiteMemoria) {
+        this.entrada = Objects.requireNonNull(entrada, "entrada");
+        this.destino = SaidaVM.todas(saida, Objects.requireNonNull(console, "console"));
+        this.memoria = new MemoriaVM(2001, limiteMemoria);
+        memoria.garante(2000); // mesmo comportamento do Python original (2000 posições)
+    }
+
+    // lê um inteiro para RD da entrada configurada
+    int leEntrada() {
+        OptionalInt v = entrada.le();
+        if (v.isEmpty()) {
+            throw new RuntimeException("Entrada cancelada pelo usuário (RD).");
+        }
+        lidas++;
+        return v.getAsInt();
+    }
+
+    // Imprime para a saída (PRN)
+    void imprime(Object o) {
+        destino.escreve(String.valueOf(o));
+        linhasSaida++;
+    }
+
+    // envia o que a saída tiver acumulado (antes de mensagens da própria VM no console)
+    public void descarregaSaida() {
+        destino.descarrega();
+    }
+
+    public MemoriaVM getMemoria() { return memoria; }
+    public String getSaida() { return saida.toString(); }
+
+    // mensagens da VM (limite de passos, resumo do JIT)
+    public PrintStream getMensagens() { return mensagens; }
+    public void setMensagens(PrintStream mensagens) { this.mensagens = mensagens; }
+
+    // liga o perfil de execução (antes de executar)
+    public void setPerfilador(Perfilador perfilador) { this.perfilador = perfilador; }
+    public Perfilador getPerfilador() { return perfilador; }
+    // rastro binário dos últimos passos (antes de executar)
+    public void setRastro(Rastro rastro) { this.rastro = rastro; }
+    public Rastro getRastro() { return rastro; }
+
+    // próxima instrução (entre fatias)
+    public int getPc() { return pc; }
+    public long getPassos() { return passos; }
+    public long getDespachos() { return despachos; }
+    public boolean isLimiteExcedido() { return limiteExcedido; }
+    public boolean isTerminado() { return terminado; }
+    public long getLinhasSaida() { return linhasSaida; }
+    public long getLidas() { return lidas; }
+}
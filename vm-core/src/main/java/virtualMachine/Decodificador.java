@@ -0,0 +1,82 @@
+package virtualMachine;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// transforma as linhas lidas do .obj em um Programa com opcodes e operandos inteiros,
+// feito uma única vez no carregamento (o laço de execução não mexe mais com String).
+// O resultado ainda não está ligado: o operando A dos saltos é o índice do nome em 'simbolos'.
+public final class Decodificador {
+
+    private Decodificador() { }
+
+    public static Programa decodifica(List<LinhaVM> linhas) {
+        int n = 0;
+        for (LinhaVM l : linhas) {
+            if (!texto(l.getInstrucao()).isEmpty()) n++;
+        }
+
+        int[] op = new int[n];
+        int[] a = new int[n];
+        int[] b = new int[n];
+
+        List<String> simbolos = new ArrayList<>();
+        Map<String, Integer> indiceSimbolo = new HashMap<>();
+        List<String> nomesRotulos = new ArrayList<>();
+        List<Integer> enderecosRotulos = new ArrayList<>();
+
+        int pc = 0;
+        for (LinhaVM l : linhas) {
+            String rot = texto(l.getRotulo());
+            String mnem = texto(l.getInstrucao()).toUpperCase();
+
+            // com ou sem instrução na linha, o rótulo aponta para o índice da
+            // próxima instrução adicionada (mesma convenção do Python).
+            // Duplicados ficam registrados para o Ligador rejeitar.
+            if (!rot.isEmpty()) {
+                nomesRotulos.add(rot);
+                enderecosRotulos.add(pc);
+            }
+            if (mnem.isEmpty()) continue;
+
+            int codigo = Opcodes.codigo(mnem);
+            op[pc] = codigo;
+            if (Opcodes.ehSalto(codigo)) {
+                a[pc] = simbolo(texto(l.getVar1()), simbolos, indiceSimbolo);
+            } else if (codigo == Opcodes.INVALIDA) {
+                a[pc] = simbolo(mnem, simbolos, indiceSimbolo);
+            } else {
+                a[pc] = paramVal(l.getVar1());
+                b[pc] = paramVal(l.getVar2());
+            }
+            pc++;
+        }
+
+        int[] enderecos = new int[enderecosRotulos.size()];
+        for (int k = 0; k < enderecos.length; k++) enderecos[k] = enderecosRotulos.get(k);
+
+        return new Programa(op, a, b, simbolos.toArray(new String[0]),
+                nomesRotulos.toArray(new String[0]), enderecos, false);
+    }
+
+    private static int simbolo(String nome, List<String> simbolos, Map<String, Integer> indice) {
+        Integer k = indice.get(nome);
+        if (k == null) {
+            k = simbolos.size();
+            simbolos.add(nome);
+            indice.put(nome, k);
+        }
+        return k;
+    }
+
+    private static String texto(String s) {
+        return s == null ? "" : s.trim();
+    }
+
+    static int paramVal(String p) {
+        if (p == null || p.trim().isEmpty()) return 0;
+        try { return Integer.parseInt(p.trim()); } catch (Exception e) { return 0; }
+    }
+}
@@ -0,0 +1,43 @@
+package virtualMachine;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.OptionalInt;
+
+// grava os valores lidos de outra entrada; o replay é EntradaVetor(getValores())
+// ou EntradaStream.arquivo() sobre o que salva() escreveu
+public final class EntradaGravada implements EntradaVM {
+
+    private final EntradaVM origem;
+    private int[] valores = new int[16];
+    private int quantidade;
+
+    public EntradaGravada(EntradaVM origem) {
+        this.origem = origem;
+    }
+
+    @Override
+    public OptionalInt le() {
+        OptionalInt v = origem.le();
+        if (v.isPresent()) {
+            if (quantidade == valores.length) valores = Arrays.copyOf(valores, quantidade * 2);
+            valores[quantidade++] = v.getAsInt();
+        }
+        return v;
+    }
+
+    public int[] getValores() {
+        return Arrays.copyOf(valores, quantidade);
+    }
+
+    // um valor por linha (lido de volta por EntradaStream)
+    public void salva(Path destino) throws IOException {
+        try (PrintWriter w = new PrintWriter(Files.newBufferedWriter(destino, StandardCharsets.UTF_8))) {
+            for (int k = 0; k < quantidade; k++) w.println(valores[k]);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package virtualMachine;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.OptionalInt;
+
+// um valor por linha de um arquivo ou do stdin (como o que se digitaria no diálogo:
+// linha não numérica vale 0, fim do stream = entrada cancelada). close() fecha a origem:
+// quem abriu com arquivo() fecha; sobre System.in, não.
+public final class EntradaStream implements EntradaVM, AutoCloseable {
+
+    private final BufferedReader leitor;
+
+    public EntradaStream(Reader origem) {
+        this.leitor = origem instanceof BufferedReader b ? b : new BufferedReader(origem, 1 << 16);
+    }
+
+    public EntradaStream(InputStream origem) {
+        this(new InputStreamReader(origem, StandardCharsets.UTF_8));
+    }
+
+    public static EntradaStream arquivo(Path arquivo) throws IOException {
+        return new EntradaStream(Files.newBufferedReader(arquivo, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public OptionalInt le() {
+        try {
+            String linha = leitor.readLine();
+            return linha == null ? OptionalInt.empty() : OptionalInt.of(converte(linha));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        leitor.close();
+    }
+
+    // parse direto da linha, sem exceção no caminho comum
+    private static int converte(String linha) {
+        int ini = 0;
+        int fim = linha.length();
+        while (ini < fim && linha.charAt(ini) <= ' ') ini++;
+        while (fim > ini && linha.charAt(fim - 1) <= ' ') fim--;
+        if (ini == fim || fim - ini > 10) return EntradaVM.converte(linha);
+        int k = ini;
+        boolean negativo = false;
+        char c = linha.charAt(k);
+        if (c == '-' || c == '+') {
+            negativo = c == '-';
+            if (++k == fim) return 0;
+        }
+        long v = 0;
+        for (; k < fim; k++) {
+            int d = linha.charAt(k) - '0';
+            if (d < 0 || d > 9) return 0;
+            v = v * 10 + d;
+        }
+        if (negativo) v = -v;
+        // fora da faixa de int: Integer.parseInt falharia, então vale 0
+        return (v < Integer.MIN_VALUE || v > Integer.MAX_VALUE) ? 0 : (int) v;
+    }
+}
@@ -0,0 +1,19 @@
+package virtualMachine;
+
+import java.util.OptionalInt;
+
+// origem dos valores lidos por RD. Vazio = não há entrada (diálogo cancelado, fim do
+// arquivo...), o que interrompe a execução com erro, como o diálogo cancelado fazia.
+public interface EntradaVM {
+
+    OptionalInt le();
+
+    // texto digitado -> inteiro; o que não for número vale 0 (comportamento original do RD)
+    static int converte(String texto) {
+        try {
+            return Integer.parseInt(texto.trim());
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
+    }
+}
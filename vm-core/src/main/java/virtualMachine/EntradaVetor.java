@@ -0,0 +1,21 @@
+package virtualMachine;
+
+import java.util.OptionalInt;
+
+// valores fornecidos de antemão (execuções roteirizadas / replay)
+public final class EntradaVetor implements EntradaVM {
+
+    private final int[] valores;
+    private int proximo;
+
+    public EntradaVetor(int... valores) {
+        this.valores = valores.clone();
+    }
+
+    @Override
+    public OptionalInt le() {
+        return proximo < valores.length ? OptionalInt.of(valores[proximo++]) : OptionalInt.empty();
+    }
+
+    public int getConsumidos() { return proximo; }
+}
@@ -0,0 +1,217 @@
+package virtualMachine;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+// executa muitos programas ao mesmo tempo em fatias de passos (quantum) sobre um pool
+// fixo de threads portadoras. Cada tarefa é um Programa + ContextoExecucao; ao fim de
+// cada fatia ela volta para a fila, então um laço infinito não segura uma thread.
+//
+// A fila é justa por peso (stride scheduling): cada tarefa acumula tempo virtual =
+// passos executados / prioridade, e a próxima fatia vai para a de menor tempo virtual.
+// Prioridade maior recebe mais fatias, mas nenhuma tarefa fica sem executar.
+// Entre fatias são verificados cancelamento, combustível (passos) e prazo (relógio).
+public final class Escalonador implements AutoCloseable {
+
+    public static final long QUANTUM_PADRAO = 10_000;
+
+    public enum Estado { NA_FILA, EXECUTANDO, CONCLUIDA, SEM_COMBUSTIVEL, PRAZO_ESGOTADO, CANCELADA, ERRO }
+
+    public static final class Tarefa {
+        private final Programa programa;
+        private final ContextoExecucao contexto;
+        private final int prioridade;
+        private final long combustivel;
+        // prazo como duração a partir de 'inicio' (System.nanoTime() na submissão): comparar o
+        // tempo decorrido não estoura, seja qual for o valor de nanoTime
+        private final boolean temPrazo;
+        private final long inicio;
+        private final long prazo;
+        private final long ordem;
+        private final CompletableFuture<Tarefa> conclusao = new CompletableFuture<>();
+
+        private long tempoVirtual;
+        private volatile boolean cancelada;
+        private volatile Estado estado = Estado.NA_FILA;
+        private volatile String erro;
+
+        private Tarefa(Programa programa, ContextoExecucao contexto, int prioridade, long combustivel,
+                       Duration prazo, long ordem) {
+            this.programa = programa;
+            this.contexto = contexto;
+            this.prioridade = prioridade;
+            this.combustivel = combustivel;
+            this.temPrazo = prazo != null;
+            this.inicio = System.nanoTime();
+            this.prazo = prazo == null ? 0 : nanos(prazo);
+            this.ordem = ordem;
+        }
+
+        // Duration.toNanos estoura acima de ~292 anos: satura
+        private static long nanos(Duration d) {
+            try {
+                return d.toNanos();
+            } catch (ArithmeticException e) {
+                return d.isNegative() ? Long.MIN_VALUE : Long.MAX_VALUE;
+            }
+        }
+
+        private boolean prazoEsgotado() {
+            return temPrazo && System.nanoTime() - inicio > prazo;
+        }
+
+        // pedido de parada; vale a partir do fim da fatia em andamento
+        public void cancela() { cancelada = true; }
+
+        public Estado getEstado() { return estado; }
+        public String getErro() { return erro; }
+        public ContextoExecucao getContexto() { return contexto; }
+        public int getPrioridade() { return prioridade; }
+
+        // completa quando a tarefa sai do escalonador (em qualquer estado final)
+        public CompletableFuture<Tarefa> getConclusao() { return conclusao; }
+    }
+
+    private final Interpretador interpretador;
+    private final long quantum;
+    private final PriorityQueue<Tarefa> fila = new PriorityQueue<>((x, y) -> {
+        int c = Long.compare(x.tempoVirtual, y.tempoVirtual);
+        return c != 0 ? c : Long.compare(x.ordem, y.ordem);
+    });
+    private final List<Thread> portadoras = new ArrayList<>();
+    private final AtomicLong sequencia = new AtomicLong();
+
+    // menor tempo virtual já despachado: tarefas novas entram a partir dele
+    private long relogioVirtual;
+    private boolean encerrado;
+
+    public Escalonador(Interpretador interpretador) {
+        this(interpretador, Runtime.getRuntime().availableProcessors(), QUANTUM_PADRAO);
+    }
+
+    public Escalonador(Interpretador interpretador, int threads, long quantum) {
+        if (threads <= 0 || quantum <= 0) throw new IllegalArgumentException("threads e quantum devem ser positivos");
+        this.interpretador = interpretador;
+        this.quantum = quantum;
+        for (int k = 0; k < threads; k++) {
+            Thread t = new Thread(this::trabalha, "escalonador-vm-" + k);
+            t.setDaemon(true);
+            portadoras.add(t);
+            t.start();
+        }
+    }
+
+    public Tarefa submete(Programa programa, ContextoExecucao contexto) {
+        return submete(programa, contexto, 1, Long.MAX_VALUE, null);
+    }
+
+    // prioridade >= 1 (peso); combustivel = passos máximos, além do limite do Interpretador
+    // (Long.MAX_VALUE = só o limite); prazo = tempo de relógio (null = sem prazo)
+    public Tarefa submete(Programa programa, ContextoExecucao contexto, int prioridade, long combustivel,
+                          Duration prazo) {
+        if (prioridade < 1) throw new IllegalArgumentException("Prioridade deve ser >= 1: " + prioridade);
+        Tarefa t = new Tarefa(programa, contexto, prioridade, combustivel, prazo, sequencia.getAndIncrement());
+        synchronized (fila) {
+            if (encerrado) throw new IllegalStateException("Escalonador encerrado");
+            t.tempoVirtual = relogioVirtual;
+            fila.add(t);
+            fila.notify();
+        }
+        return t;
+    }
+
+    private void trabalha() {
+        while (true) {
+            Tarefa t;
+            synchronized (fila) {
+                while (fila.isEmpty() && !encerrado) {
+                    try {
+                        fila.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (encerrado) return;
+                t = fila.poll();
+                relogioVirtual = Math.max(relogioVirtual, t.tempoVirtual);
+            }
+            if (fatia(t)) {
+                synchronized (fila) {
+                    if (encerrado) {
+                        conclui(t, Estado.CANCELADA);
+                    } else {
+                        fila.add(t);
+                        fila.notify();
+                    }
+                }
+            }
+        }
+    }
+
+    // executa uma fatia; true se a tarefa deve voltar para a fila
+    private boolean fatia(Tarefa t) {
+        if (t.cancelada) {
+            conclui(t, Estado.CANCELADA);
+            return false;
+        }
+        if (t.prazoEsgotado()) {
+            conclui(t, Estado.PRAZO_ESGOTADO);
+            return false;
+        }
+        ContextoExecucao c = t.contexto;
+        long restante = t.combustivel - c.getPassos();
+        if (restante <= 0) {
+            conclui(t, Estado.SEM_COMBUSTIVEL);
+            return false;
+        }
+
+        t.estado = Estado.EXECUTANDO;
+        long antes = c.getPassos();
+        boolean terminou;
+        try {
+            terminou = interpretador.executa(t.programa, c, Math.min(quantum, restante));
+        } catch (RuntimeException e) {
+            c.descarregaSaida();
+            t.erro = e.getMessage();
+            conclui(t, Estado.ERRO);
+            return false;
+        }
+        if (terminou) {
+            conclui(t, Estado.CONCLUIDA);
+            return false;
+        }
+        t.tempoVirtual += Math.max(1, (c.getPassos() - antes) / t.prioridade);
+        t.estado = Estado.NA_FILA;
+        return true;
+    }
+
+    private static void conclui(Tarefa t, Estado estado) {
+        t.estado = estado;
+        t.conclusao.complete(t);
+    }
+
+    // para as portadoras; tarefas ainda na fila terminam como CANCELADA
+    @Override
+    public void close() {
+        List<Tarefa> pendentes;
+        synchronized (fila) {
+            encerrado = true;
+            pendentes = new ArrayList<>(fila);
+            fila.clear();
+            fila.notifyAll();
+        }
+        for (Tarefa t : pendentes) conclui(t, Estado.CANCELADA);
+        for (Thread t : portadoras) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
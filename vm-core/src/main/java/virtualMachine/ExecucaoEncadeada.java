@@ -0,0 +1,295 @@
+package virtualMachine;
+
+// segundo motor de execução: cada instrução decodificada vira um nó com os operandos já
+// capturados e o próximo nó já ligado; executar um nó devolve o nó seguinte (null = fim).
+// Não há switch por passo nem leitura dos vetores do programa: cada tipo de instrução é
+// uma classe pequena, e os sítios de chamada quentes ficam monomórficos para o HotSpot.
+// A semântica (mensagens de erro, limite de passos, salto para o próprio índice) é a
+// mesma do laço com switch de Interpretador.executa.
+final class ExecucaoEncadeada {
+
+    private abstract static class No {
+        No proximo;
+        int indice;
+
+        abstract No executa();
+    }
+
+    // nó com destino de salto (índice já resolvido; o nó é ligado na segunda passada)
+    private abstract static class Desvio extends No {
+        final int alvo;
+        No destino;
+
+        Desvio(int alvo) { this.alvo = alvo; }
+    }
+
+    private final ContextoExecucao c;
+    private final MemoriaVM m;
+    private final long limitePassos;
+    private final No[] nos;
+
+    private long passos;
+    private long despachos;
+    // próximo nó a executar (a execução pode ser retomada em fatias)
+    private No atual;
+
+    ExecucaoEncadeada(ContextoExecucao c, Programa p, long limitePassos) {
+        this.c = c;
+        this.m = c.getMemoria();
+        this.limitePassos = limitePassos;
+        int n = p.op.length;
+        nos = new No[n];
+        for (int i = 0; i < n; i++) {
+            nos[i] = cria(p, i);
+            nos[i].indice = i;
+        }
+        for (int i = 0; i < n; i++) {
+            nos[i].proximo = no(i + 1);
+            if (nos[i] instanceof Desvio d) d.destino = no(d.alvo);
+        }
+        // começa de onde o contexto parou (0 num contexto novo; outro ponto se restaurado)
+        atual = no(c.pc);
+        passos = c.passos;
+        despachos = c.despachos;
+    }
+
+    // executa até o fim ou até 'pausa' passos; true se terminou (fim, HLT ou limite)
+    boolean executa(long pausa) {
+        No no = atual;
+        try {
+            while (no != null) {
+                if (passos >= pausa) {
+                    if (pausa < limitePassos) {
+                        atual = no;
+                        return false;
+                    }
+                    passos++;
+                    c.limiteExcedido = true;
+                    c.descarregaSaida();
+                    c.getMensagens().println("Limite de passos excedido (" + limitePassos + "). Possível loop infinito.");
+                    break;
+                }
+                passos++;
+                despachos++;
+                no = no.executa();
+            }
+        } catch (RuntimeException e) {
+            atual = no; // a instrução que falhou
+            throw e;
+        }
+        atual = null;
+        return true;
+    }
+
+    long getPassos() { return passos; }
+    long getDespachos() { return despachos; }
+    // índice da próxima instrução (ponto de retomada)
+    int getPc() { return atual == null ? nos.length : atual.indice; }
+
+    private No no(int indice) {
+        return indice < nos.length ? nos[indice] : null;
+    }
+
+    // salto para o próprio índice só avança uma instrução
+    private static int destino(int alvo, int i) {
+        return alvo == i ? i + 1 : alvo;
+    }
+
+    private void binaria() {
+        if (m.getS() < 1) throw new RuntimeException("Stack underflow em binOp");
+    }
+
+    private No cria(Programa p, int i) {
+        final int a = p.a[i];
+        final int b = p.b[i];
+        final int op = p.op[i];
+        switch (op) {
+            case Opcodes.START:
+                return new No() {
+                    No executa() { m.setS(-1); return proximo; }
+                };
+            case Opcodes.HLT:
+                return new No() {
+                    No executa() { c.imprime("\nExecução terminada (HLT)."); return null; }
+                };
+            case Opcodes.ALLOC:
+                return new No() {
+                    No executa() {
+                        for (int k = 0; k < b; k++) m.push(m.le(a + k));
+                        return proximo;
+                    }
+                };
+            case Opcodes.DALLOC:
+                return new No() {
+                    No executa() {
+                        for (int k = b - 1; k >= 0; k--) {
+                            if (m.getS() < 0) throw new RuntimeException("Stack underflow em DALLOC");
+                            m.escreve(a + k, m.pop());
+                        }
+                        return proximo;
+                    }
+                };
+            case Opcodes.LDC:
+                return new No() {
+                    No executa() { m.push(a); return proximo; }
+                };
+            case Opcodes.LDV:
+                return new No() {
+                    No executa() { m.push(m.le(a)); return proximo; }
+                };
+            case Opcodes.STR:
+                return new No() {
+                    No executa() { int v = m.pop(); m.escreve(a, v); return proximo; }
+                };
+            case Opcodes.STRK:
+                return new No() {
+                    No executa() {
+                        if (m.getS() < 0) throw new RuntimeException("Pop em pilha vazia!");
+                        m.escreve(a, m.top());
+                        return proximo;
+                    }
+                };
+            case Opcodes.ENTR:
+                return new No() {
+                    No executa() {
+                        m.push(m.le(a));
+                        m.escreve(a, m.getS() + 1);
+                        m.reserva(b);
+                        return proximo;
+                    }
+                };
+            case Opcodes.SAIR:
+                return new No() {
+                    No executa() {
+                        if (b > 0) {
+                            if (m.getS() < b) throw new RuntimeException("Stack underflow em SAIR");
+                            m.setS(m.getS() - b);
+                        }
+                        m.escreve(a, m.pop());
+                        return proximo;
+                    }
+                };
+            case Opcodes.LDL:
+                return new No() {
+                    No executa() { m.push(m.le(Interpretador.local(m, a, b))); return proximo; }
+                };
+            case Opcodes.STL:
+                return new No() {
+                    No executa() { int v = m.pop(); m.escreve(Interpretador.local(m, a, b), v); return proximo; }
+                };
+            case Opcodes.ADD:
+                return new No() {
+                    No executa() { binaria(); int y = m.pop(); int x = m.pop(); m.push(x + y); return proximo; }
+                };
+            case Opcodes.SUB:
+                return new No() {
+                    No executa() { binaria(); int y = m.pop(); int x = m.pop(); m.push(x - y); return proximo; }
+                };
+            case Opcodes.MULT:
+                return new No() {
+                    No executa() { binaria(); int y = m.pop(); int x = m.pop(); m.push(x * y); return proximo; }
+                };
+            case Opcodes.DIVI: case Opcodes.AND: case Opcodes.OR:
+            case Opcodes.CME: case Opcodes.CMA: case Opcodes.CEQ:
+            case Opcodes.CDIF: case Opcodes.CMEQ: case Opcodes.CMAQ:
+                return new No() {
+                    No executa() {
+                        binaria();
+                        int y = m.pop();
+                        int x = m.pop();
+                        m.push(Opcodes.aplica(op, x, y));
+                        return proximo;
+                    }
+                };
+            case Opcodes.INV:
+                return new No() {
+                    No executa() { int v = m.pop(); m.push(-v); return proximo; }
+                };
+            case Opcodes.NEG:
+                return new No() {
+                    No executa() { int v = m.pop(); m.push(1 - v); return proximo; }
+                };
+            case Opcodes.JMP:
+                return new Desvio(destino(a, i)) {
+                    No executa() { return destino; }
+                };
+            case Opcodes.JMPF:
+                return new Desvio(destino(a, i)) {
+                    No executa() { return m.pop() == 0 ? destino : proximo; }
+                };
+            case Opcodes.CALL:
+                return new Desvio(destino(a, i)) {
+                    No executa() { m.push(i + 1); return destino; }
+                };
+            case Opcodes.RETURN:
+                return new No() {
+                    No executa() {
+                        if (m.getS() < 0) throw new RuntimeException("RETURN com pilha vazia.");
+                        int ret = m.pop();
+                        return ret == i ? proximo : no(ret);
+                    }
+                };
+            case Opcodes.RD:
+                return new No() {
+                    No executa() { m.push(c.leEntrada()); return proximo; }
+                };
+            case Opcodes.PRN:
+                return new No() {
+                    No executa() { int v = m.pop(); c.imprime(v); return proximo; }
+                };
+            case Opcodes.NULL:
+                return new No() {
+                    No executa() { return proximo; }
+                };
+            default:
+                if (Opcodes.ehFundida(op)) return fundida(p, i);
+                return new No() {
+                    No executa() { throw new RuntimeException("Instrução inválida: " + p.simbolos[a]); }
+                };
+        }
+    }
+
+    // superinstrução da Fusao: mesmas escritas e contagem de passos do laço com switch
+    private No fundida(Programa p, int i) {
+        final int op = p.op[i];
+        final int a = p.a[i];
+        final int operador = p.b[i];
+        final int segundo = p.a[i + 1];
+        final boolean constante = op == Opcodes.F_LDV_LDC_CMP_JMPF || op == Opcodes.F_LDV_LDC_OP_STR
+                || op == Opcodes.F_LDV_LDC_OP;
+        final boolean salto = op == Opcodes.F_LDV_LDC_CMP_JMPF || op == Opcodes.F_LDV_LDV_CMP_JMPF;
+        final int tamanho = salto ? 4 : Fusao.tamanho(op);
+        final int ultimo = tamanho == 4 ? p.a[i + 3] : 0;
+        return new Desvio(salto ? ultimo : i + tamanho) {
+            No executa() {
+                if (passos + tamanho - 1 > limitePassos) {
+                    // limite no meio da sequência: só o LDV, o resto segue pelos nós originais
+                    m.push(m.le(a));
+                    return proximo;
+                }
+                passos += tamanho - 1;
+                int t = m.getS();
+                int x = m.le(a);
+                int y;
+                if (constante) {
+                    y = segundo;
+                } else {
+                    m.escreve(t + 1, x);
+                    y = m.le(segundo);
+                }
+                m.escreve(t + 2, y);
+                int r = Opcodes.aplica(operador, x, y);
+                m.escreve(t + 1, r);
+                if (salto) {
+                    return (r == 0 && ultimo != i + 3) ? destino : no(i + 4);
+                }
+                if (tamanho == 4) {
+                    m.escreve(ultimo, r);
+                } else {
+                    m.setS(t + 1);
+                }
+                return destino;
+            }
+        };
+    }
+}
@@ -0,0 +1,282 @@
+package virtualMachine;
+
+// motor para programas aprovados pelo Verificador sem recursão: a memória já é criada com o
+// tamanho que basta para qualquer execução, e o laço trabalha direto no int[] com o topo da
+// pilha num local, sem garante() nem teste de pilha vazia por instrução.
+//
+// O endereço de retorno fica na memória e um STR pode trocá-lo; aí o fluxo sairia do grafo
+// que o Verificador analisou. Por isso uma pilha sombra guarda, a cada CALL, o retorno e o
+// topo esperados, e o RETURN confere os dois: se não baterem, esta execução é desativada e o
+// Interpretador continua daquele RETURN no laço com verificações. O mesmo vale para LDL/STL
+// cujo endereço (calculado na hora) cai fora da memória já reservada.
+// A semântica (mensagens, limite de passos, salto para o próprio índice, superinstruções) é
+// a mesma do laço com switch do Interpretador.
+final class ExecucaoVerificada {
+
+    private final ContextoExecucao c;
+    private final MemoriaVM m;
+    private final Programa p;
+    private final long limitePassos;
+    // posições que já existem na memória (endereços de LDL/STL precisam estar abaixo)
+    private final int alcance;
+
+    private final int[] sombraRetorno;
+    private final int[] sombraTopo;
+    private int chamadas;
+    private boolean ativa = true;
+
+    private int pc;
+    private long passos;
+    private long despachos;
+
+    // só para um contexto no início da execução (o grafo foi analisado a partir do START)
+    ExecucaoVerificada(ContextoExecucao c, Programa p, long limitePassos) {
+        this.c = c;
+        this.m = c.getMemoria();
+        this.p = p;
+        this.limitePassos = limitePassos;
+        Verificacao v = p.verificacao;
+        m.garante((int) v.getMemoriaNecessaria() - 1);
+        alcance = m.tamanho();
+        sombraRetorno = new int[v.getChamadasMaximas()];
+        sombraTopo = new int[v.getChamadasMaximas()];
+        pc = c.pc;
+        passos = c.passos;
+        despachos = c.despachos;
+    }
+
+    // o programa e a memória do contexto permitem este motor
+    static boolean serve(ContextoExecucao c, Programa p) {
+        Verificacao v = p.verificacao;
+        return v != null && v.isRapido() && c.pc == 0 && c.passos == 0
+                && v.getMemoriaNecessaria() <= c.getMemoria().getLimite();
+    }
+
+    // false depois que um RETURN saiu do fluxo verificado
+    boolean isAtiva() { return ativa; }
+
+    long getPassos() { return passos; }
+    long getDespachos() { return despachos; }
+    int getPc() { return pc; }
+
+    // executa até o fim ou até 'pausa' passos; true se terminou (fim, HLT ou limite).
+    // Com false, isAtiva() diz se foi pausa ou se o resto vai para o laço com verificações.
+    boolean executa(long pausa) {
+        final int[] ops = p.op;
+        final int[] as = p.a;
+        final int[] bs = p.b;
+        final int n = ops.length;
+        final int[] d = m.dados();
+        int s = m.getS();
+        long steps = passos;
+        long desp = despachos;
+        boolean executando = true;
+        int i = pc;
+        try {
+            while (i < n && executando) {
+                if (steps >= pausa) {
+                    if (pausa < limitePassos) {
+                        pc = i;
+                        passos = steps;
+                        despachos = desp;
+                        return false;
+                    }
+                    steps++;
+                    c.descarregaSaida();
+                    c.limiteExcedido = true;
+                    c.getMensagens().println("Limite de passos excedido (" + limitePassos + "). Possível loop infinito.");
+                    break;
+                }
+                steps++;
+                desp++;
+                int op = ops[i];
+                int a = as[i];
+                int prox = i + 1;
+                switch (op) {
+                    case Opcodes.START:
+                        s = -1;
+                        break;
+                    case Opcodes.HLT:
+                        executando = false;
+                        c.imprime("\nExecução terminada (HLT).");
+                        break;
+                    case Opcodes.ALLOC: {
+                        int b = bs[i];
+                        for (int k = 0; k < b; k++) {
+                            int v = d[a + k];
+                            d[++s] = v;
+                        }
+                        break;
+                    }
+                    case Opcodes.DALLOC:
+                        for (int k = bs[i] - 1; k >= 0; k--) d[a + k] = d[s--];
+                        break;
+                    case Opcodes.LDC:
+                        d[++s] = a;
+                        break;
+                    case Opcodes.LDV: {
+                        int v = d[a];
+                        d[++s] = v;
+                        break;
+                    }
+                    case Opcodes.STR:
+                        d[a] = d[s--];
+                        break;
+                    case Opcodes.STRK:
+                        d[a] = d[s];
+                        break;
+                    case Opcodes.ENTR: {
+                        int v = d[a];
+                        d[++s] = v;
+                        d[a] = s + 1;
+                        if (bs[i] > 0) s += bs[i];
+                        break;
+                    }
+                    case Opcodes.SAIR:
+                        if (bs[i] > 0) s -= bs[i];
+                        d[a] = d[s--];
+                        break;
+                    case Opcodes.LDL: {
+                        int e = d[a] + bs[i];
+                        if (e < 0 || e >= alcance) return desativa(i, steps, desp);
+                        int v = d[e];
+                        d[++s] = v;
+                        break;
+                    }
+                    case Opcodes.STL: {
+                        int e = d[a] + bs[i];
+                        if (e < 0 || e >= alcance) return desativa(i, steps, desp);
+                        d[e] = d[s--];
+                        break;
+                    }
+                    case Opcodes.ADD: {
+                        int y = d[s--];
+                        d[s] = d[s] + y;
+                        break;
+                    }
+                    case Opcodes.SUB: {
+                        int y = d[s--];
+                        d[s] = d[s] - y;
+                        break;
+                    }
+                    case Opcodes.MULT: {
+                        int y = d[s--];
+                        d[s] = d[s] * y;
+                        break;
+                    }
+                    case Opcodes.DIVI: case Opcodes.AND: case Opcodes.OR:
+                    case Opcodes.CME: case Opcodes.CMA: case Opcodes.CEQ:
+                    case Opcodes.CDIF: case Opcodes.CMEQ: case Opcodes.CMAQ: {
+                        int y = d[s--];
+                        d[s] = Opcodes.aplica(op, d[s], y);
+                        break;
+                    }
+                    case Opcodes.INV:
+                        d[s] = -d[s];
+                        break;
+                    case Opcodes.NEG:
+                        d[s] = 1 - d[s];
+                        break;
+                    case Opcodes.JMP:
+                        if (a != i) prox = a;
+                        break;
+                    case Opcodes.JMPF:
+                        if (d[s--] == 0 && a != i) prox = a;
+                        break;
+                    case Opcodes.CALL:
+                        d[++s] = i + 1;
+                        sombraRetorno[chamadas] = i + 1;
+                        sombraTopo[chamadas++] = s;
+                        if (a != i) prox = a;
+                        break;
+                    case Opcodes.RETURN: {
+                        int ret = d[s];
+                        if (chamadas == 0 || sombraRetorno[chamadas - 1] != ret || sombraTopo[chamadas - 1] != s) {
+                            // fora do fluxo verificado: este RETURN já é do laço com verificações
+                            return desativa(i, steps, desp);
+                        }
+                        chamadas--;
+                        s--;
+                        if (ret != i) prox = ret;
+                        break;
+                    }
+                    case Opcodes.RD: {
+                        int v = c.leEntrada();
+                        d[++s] = v;
+                        break;
+                    }
+                    case Opcodes.PRN:
+                        c.imprime(d[s--]);
+                        break;
+                    case Opcodes.NULL:
+                        break;
+
+                    case Opcodes.F_LDV_LDC_CMP_JMPF:
+                    case Opcodes.F_LDV_LDV_CMP_JMPF:
+                    case Opcodes.F_LDV_LDC_OP_STR:
+                    case Opcodes.F_LDV_LDV_OP_STR:
+                    case Opcodes.F_LDV_LDC_OP:
+                    case Opcodes.F_LDV_LDV_OP: {
+                        int tamanho = Fusao.tamanho(op);
+                        if (steps + tamanho - 1 > limitePassos) {
+                            // limite no meio da sequência: só o LDV, o resto pelas originais
+                            int v = d[a];
+                            d[++s] = v;
+                            break;
+                        }
+                        steps += tamanho - 1;
+                        int x = d[a];
+                        int y;
+                        if (op == Opcodes.F_LDV_LDC_CMP_JMPF || op == Opcodes.F_LDV_LDC_OP_STR
+                                || op == Opcodes.F_LDV_LDC_OP) {
+                            y = as[i + 1];
+                        } else {
+                            d[s + 1] = x;
+                            y = d[as[i + 1]];
+                        }
+                        d[s + 2] = y;
+                        int r = Opcodes.aplica(bs[i], x, y);
+                        d[s + 1] = r;
+                        if (op == Opcodes.F_LDV_LDC_CMP_JMPF || op == Opcodes.F_LDV_LDV_CMP_JMPF) {
+                            int destino = as[i + 3];
+                            prox = (r == 0 && destino != i + 3) ? destino : i + 4;
+                        } else if (tamanho == 4) {
+                            d[as[i + 3]] = r;
+                            prox = i + 4;
+                        } else {
+                            s++;
+                            prox = i + 3;
+                        }
+                        break;
+                    }
+
+                    default:
+                        throw new RuntimeException("Instrução inválida: " + p.simbolos[a]);
+                }
+                i = prox;
+            }
+            pc = i;
+            passos = steps;
+            despachos = desp;
+            return true;
+        } catch (RuntimeException e) {
+            // erro numa instrução (ex.: entrada acabou): guarda até onde chegou
+            pc = i;
+            passos = steps;
+            despachos = desp;
+            throw e;
+        } finally {
+            m.setS(s);
+            m.sujaTudo(); // escritas direto no vetor (só marca se houver ponto de controle)
+        }
+    }
+
+    // a instrução i (ainda não executada) e o resto seguem no laço com verificações
+    private boolean desativa(int i, long steps, long desp) {
+        ativa = false;
+        pc = i;
+        passos = steps - 1;
+        despachos = desp - 1;
+        return false;
+    }
+}
@@ -0,0 +1,99 @@
+package virtualMachine;
+
+import java.io.PrintStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+// execução em camadas: o interpretador avisa a cada salto para trás (início de laço);
+// quando um destino passa do LIMIAR de chegadas, a região a partir dele é compilada
+// (CompiladorJit) e carregada como classe oculta. As próximas chegadas ao destino rodam
+// o código compilado até ele sair de volta para o interpretador.
+final class ExecutorJit {
+
+    static final int LIMIAR = 1000;
+
+    private static final MethodType TIPO = MethodType.methodType(int.class, int[].class, long[].class);
+
+    private final CompiladorJit compilador;
+    private final int[] contadores;
+    private final MethodHandle[] regioes;
+    // endereços fixos que cada região escreve (STR/STRK)
+    private final int[][] escritas;
+    // {s, passos, limite de passos, tamanho da memória, menor e maior endereço escrito}
+    private final long[] estado = new long[6];
+    private final PrintStream mensagens;
+
+    private int compiladas;
+    private int recusadas;
+    private long entradas;
+
+    ExecutorJit(Programa programa, PrintStream mensagens) {
+        this.mensagens = mensagens;
+        this.compilador = new CompiladorJit(programa);
+        this.contadores = new int[programa.tamanho()];
+        this.regioes = new MethodHandle[programa.tamanho()];
+        this.escritas = new int[programa.tamanho()][];
+    }
+
+    // executa a região compilada em 'destino' (se houver), sem passar de 'limite' passos;
+    // devolve o índice onde o interpretador continua, ou -1 se o destino ainda é interpretado
+    int entra(int destino, MemoriaVM m, long passos, long limite) {
+        if (destino < 0 || destino >= contadores.length) return -1;
+        MethodHandle regiao = regioes[destino];
+        if (regiao == null) {
+            int c = contadores[destino];
+            if (c < 0) return -1; // região já recusada pelo compilador
+            if (c + 1 < LIMIAR) {
+                contadores[destino] = c + 1;
+                return -1;
+            }
+            regiao = compila(destino);
+            if (regiao == null) {
+                contadores[destino] = -1;
+                recusadas++;
+                return -1;
+            }
+            regioes[destino] = regiao;
+            escritas[destino] = compilador.escritas();
+            compiladas++;
+        }
+
+        estado[0] = m.getS();
+        estado[1] = passos;
+        estado[2] = limite;
+        estado[3] = m.tamanho();
+        int continua;
+        try {
+            continua = (int) regiao.invokeExact(m.dados(), estado);
+        } catch (Throwable t) {
+            throw new RuntimeException("Falha no código compilado (instrução " + destino + ")", t);
+        }
+        m.setS((int) estado[0]);
+        // o código compilado escreve direto no vetor: marca só as páginas que a região escreveu
+        if (m.rastreandoEscritas()) {
+            m.sujaFaixa((int) estado[4], (int) estado[5]);
+            for (int e : escritas[destino]) m.sujaFaixa(e, e);
+        }
+        entradas++;
+        return continua;
+    }
+
+    long getPassos() { return estado[1]; }
+
+    private MethodHandle compila(int destino) {
+        byte[] classe = compilador.compila(destino);
+        if (classe == null) return null;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(classe, true);
+            return lookup.findStatic(lookup.lookupClass(), "executa", TIPO);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            mensagens.println("JIT: região em " + destino + " não carregou (" + e + "); segue interpretada");
+            return null;
+        }
+    }
+
+    String resumo() {
+        return "JIT: " + compiladas + " regiões compiladas, " + recusadas + " recusadas, " + entradas + " entradas";
+    }
+}
@@ -0,0 +1,225 @@
+package virtualMachine;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// execução em lote, sem GUI, de vários programas (.obj / .mvdb) em paralelo:
+//
+//   java virtualMachine.ExecutorLote <diretorio|glob> [relatorio.json] [--threads N]
+//                                    [--fusao] [--otimizar] [--jit] [--encadeado]
+//
+// Cada programa roda numa VirtualMachine própria, com as entradas do RD lidas de
+// <nome>.in ao lado do programa (um valor por linha; sem o arquivo, RD falha como
+// entrada cancelada). O relatório JSON lista, na ordem dos nomes dos arquivos, a saída,
+// os passos, o erro (se houver) e o tempo de cada execução.
+public final class ExecutorLote {
+
+    // resultado de um programa
+    public static final class Resultado {
+        final Path arquivo;
+        final String saida;
+        final long passos;
+        final boolean limiteExcedido;
+        final String erro;
+        final long tempoNanos;
+
+        Resultado(Path arquivo, String saida, long passos, boolean limiteExcedido, String erro, long tempoNanos) {
+            this.arquivo = arquivo;
+            this.saida = saida;
+            this.passos = passos;
+            this.limiteExcedido = limiteExcedido;
+            this.erro = erro;
+            this.tempoNanos = tempoNanos;
+        }
+
+        public Path getArquivo() { return arquivo; }
+        public String getSaida() { return saida; }
+        public long getPassos() { return passos; }
+        public boolean isLimiteExcedido() { return limiteExcedido; }
+        public String getErro() { return erro; }
+        public long getTempoNanos() { return tempoNanos; }
+    }
+
+    private static final PrintStream DESCARTE = new PrintStream(OutputStream.nullOutputStream());
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private boolean fusao;
+    private boolean otimizar;
+    private boolean jit;
+    private ModoExecucao modo = ModoExecucao.SWITCH;
+    // o mesmo conteúdo (em outro arquivo ou numa nova chamada de executa) não é recarregado
+    private CacheProgramas cache = new CacheProgramas(256, 4_000_000);
+
+    public void setThreads(int threads) { this.threads = Math.max(1, threads); }
+    public void setFusao(boolean fusao) { this.fusao = fusao; }
+    public void setOtimizar(boolean otimizar) { this.otimizar = otimizar; }
+    public void setJit(boolean jit) { this.jit = jit; }
+    public void setModo(ModoExecucao modo) { this.modo = modo; }
+    // null = sem cache
+    public void setCache(CacheProgramas cache) { this.cache = cache; }
+    public CacheProgramas getCache() { return cache; }
+
+    // diretório (todos os .obj/.mvdb) ou glob no último componente (ex.: progs/gera*.obj)
+    public static List<Path> programas(String padrao) throws IOException {
+        Path caminho = Path.of(padrao);
+        List<Path> arquivos = new ArrayList<>();
+        if (Files.isDirectory(caminho)) {
+            try (DirectoryStream<Path> ds = Files.newDirectoryStream(caminho, "*.{obj,mvdb}")) {
+                for (Path p : ds) if (Files.isRegularFile(p)) arquivos.add(p);
+            }
+        } else {
+            Path pasta = caminho.getParent() == null ? Path.of(".") : caminho.getParent();
+            PathMatcher casa = FileSystems.getDefault().getPathMatcher("glob:" + caminho.getFileName());
+            try (DirectoryStream<Path> ds = Files.newDirectoryStream(pasta)) {
+                for (Path p : ds) {
+                    if (Files.isRegularFile(p) && casa.matches(p.getFileName())) arquivos.add(p);
+                }
+            }
+        }
+        arquivos.sort(null);
+        return arquivos;
+    }
+
+    // resultados na mesma ordem de 'arquivos', independente de qual terminou primeiro
+    public List<Resultado> executa(List<Path> arquivos) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, Math.max(1, arquivos.size())));
+        try {
+            List<Future<Resultado>> futuros = new ArrayList<>();
+            for (Path arquivo : arquivos) futuros.add(pool.submit(() -> executa(arquivo)));
+            List<Resultado> resultados = new ArrayList<>();
+            for (Future<Resultado> f : futuros) {
+                try {
+                    resultados.add(f.get());
+                } catch (ExecutionException e) {
+                    throw new RuntimeException("Falha na execução em lote", e.getCause());
+                }
+            }
+            return resultados;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    public Resultado executa(Path arquivo) throws IOException {
+        VirtualMachine vm = new VirtualMachine(arquivo.toString());
+        vm.setMensagens(DESCARTE);
+        vm.setSaidaVM(SaidaNula.INSTANCIA);
+        vm.setFusao(fusao);
+        vm.setOtimizar(otimizar);
+        vm.setJit(jit);
+        vm.setModo(modo);
+        vm.setCache(cache);
+        Path entradas = arquivoEntradas(arquivo);
+        // um leitor aberto por programa: fechado ao fim de cada um, senão um lote grande esgota os descritores
+        EntradaStream doArquivo = Files.isRegularFile(entradas) ? EntradaStream.arquivo(entradas) : null;
+        try (doArquivo) {
+            vm.setEntrada(doArquivo != null ? doArquivo : new EntradaVetor());
+
+            long inicio = System.nanoTime();
+            vm.analisaObj();
+            long tempo = System.nanoTime() - inicio;
+            return new Resultado(arquivo, vm.getSaida(), vm.getPassos(), vm.isLimiteExcedido(), vm.getErro(), tempo);
+        }
+    }
+
+    // gera.obj -> gera.in
+    static Path arquivoEntradas(Path programa) {
+        String nome = programa.getFileName().toString();
+        int ponto = nome.lastIndexOf('.');
+        return programa.resolveSibling((ponto < 0 ? nome : nome.substring(0, ponto)) + ".in");
+    }
+
+    public static void gravaRelatorio(List<Resultado> resultados, long tempoTotalNanos, PrintWriter w) {
+        w.println("{");
+        w.println("  \"programas\": " + resultados.size() + ",");
+        w.println("  \"tempoTotalMs\": " + ms(tempoTotalNanos) + ",");
+        w.println("  \"resultados\": [");
+        for (int k = 0; k < resultados.size(); k++) {
+            Resultado r = resultados.get(k);
+            w.print("    {\"arquivo\": " + json(r.arquivo.toString())
+                    + ", \"passos\": " + r.passos
+                    + ", \"limiteExcedido\": " + r.limiteExcedido
+                    + ", \"erro\": " + (r.erro == null ? "null" : json(r.erro))
+                    + ", \"tempoMs\": " + ms(r.tempoNanos)
+                    + ", \"saida\": " + json(r.saida == null ? "" : r.saida) + "}");
+            w.println(k + 1 < resultados.size() ? "," : "");
+        }
+        w.println("  ]");
+        w.println("}");
+        w.flush();
+    }
+
+    private static String ms(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+
+    private static String json(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int k = 0; k < s.length(); k++) {
+            char c = s.charAt(k);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    public static void main(String[] args) throws Exception {
+        ExecutorLote lote = new ExecutorLote();
+        String padrao = null;
+        String relatorio = null;
+        for (int k = 0; k < args.length; k++) {
+            switch (args[k]) {
+                case "--threads": lote.setThreads(Integer.parseInt(args[++k])); break;
+                case "--fusao": lote.setFusao(true); break;
+                case "--otimizar": lote.setOtimizar(true); break;
+                case "--jit": lote.setJit(true); break;
+                case "--encadeado": lote.setModo(ModoExecucao.ENCADEADO); break;
+                default:
+                    if (padrao == null) padrao = args[k];
+                    else relatorio = args[k];
+            }
+        }
+        if (padrao == null) {
+            System.out.println("Uso: java virtualMachine.ExecutorLote <diretorio|glob> [relatorio.json] [--threads N]"
+                    + " [--fusao] [--otimizar] [--jit] [--encadeado]");
+            return;
+        }
+
+        List<Path> arquivos = programas(padrao);
+        long inicio = System.nanoTime();
+        List<Resultado> resultados = lote.executa(arquivos);
+        long total = System.nanoTime() - inicio;
+
+        if (relatorio == null) {
+            gravaRelatorio(resultados, total, new PrintWriter(System.out, false, StandardCharsets.UTF_8));
+        } else {
+            try (PrintWriter w = new PrintWriter(Files.newBufferedWriter(Path.of(relatorio), StandardCharsets.UTF_8))) {
+                gravaRelatorio(resultados, total, w);
+            }
+            System.out.println(resultados.size() + " programas executados; relatório em '" + relatorio + "'.");
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package virtualMachine;
+
+// passo opcional de carregamento que troca sequências comuns geradas pelo Compilador
+// por superinstruções (ver Opcodes.F_*). O opcode fundido é gravado só no índice da
+// primeira instrução; as demais continuam no lugar, então os índices, os destinos de
+// salto e a entrada por salto no meio da sequência não mudam. O operador da sequência
+// fica no operando B do LDV (que não o usa) e os outros operandos são lidos de a[i+1..i+3].
+public final class Fusao {
+
+    private static final int PRIMEIRA = Opcodes.F_LDV_LDC_CMP_JMPF;
+
+    // sítios fundidos por superinstrução (índice = opcode - PRIMEIRA)
+    private final int[] contagem = new int[Opcodes.F_LDV_LDV_OP - PRIMEIRA + 1];
+
+    public Programa funde(Programa p) {
+        if (!p.ligado) throw new IllegalStateException("Fusão exige programa já ligado");
+
+        int[] op = p.op.clone();
+        int[] b = p.b.clone();
+        int n = op.length;
+
+        int i = 0;
+        while (i < n) {
+            int f = padrao(p.op, i);
+            if (f < 0) {
+                i++;
+                continue;
+            }
+            op[i] = f;
+            b[i] = p.op[i + 2];
+            contagem[f - PRIMEIRA]++;
+            i += tamanho(f);
+        }
+
+        return new Programa(op, p.a, b, p.simbolos, p.nomesRotulos, p.enderecosRotulos, true);
+    }
+
+    private static int padrao(int[] op, int i) {
+        int n = op.length;
+        if (i + 2 >= n || op[i] != Opcodes.LDV || !Opcodes.ehBinaria(op[i + 2])) return -1;
+        boolean constante;
+        if (op[i + 1] == Opcodes.LDC) constante = true;
+        else if (op[i + 1] == Opcodes.LDV) constante = false;
+        else return -1;
+
+        if (i + 3 < n && op[i + 3] == Opcodes.JMPF && Opcodes.ehComparacao(op[i + 2])) {
+            return constante ? Opcodes.F_LDV_LDC_CMP_JMPF : Opcodes.F_LDV_LDV_CMP_JMPF;
+        }
+        if (i + 3 < n && op[i + 3] == Opcodes.STR) {
+            return constante ? Opcodes.F_LDV_LDC_OP_STR : Opcodes.F_LDV_LDV_OP_STR;
+        }
+        return constante ? Opcodes.F_LDV_LDC_OP : Opcodes.F_LDV_LDV_OP;
+    }
+
+    // quantas instruções originais a superinstrução substitui (= passos contados)
+    public static int tamanho(int opFundido) {
+        return (opFundido == Opcodes.F_LDV_LDC_OP || opFundido == Opcodes.F_LDV_LDV_OP) ? 3 : 4;
+    }
+
+    public int getContagem(int opFundido) {
+        return contagem[opFundido - PRIMEIRA];
+    }
+
+    public int getTotal() {
+        int total = 0;
+        for (int c : contagem) total += c;
+        return total;
+    }
+
+    public String resumo() {
+        StringBuilder sb = new StringBuilder("Fusão: " + getTotal() + " superinstruções");
+        String sep = " (";
+        for (int k = 0; k < contagem.length; k++) {
+            if (contagem[k] == 0) continue;
+            sb.append(sep).append(Opcodes.nome(PRIMEIRA + k)).append('=').append(contagem[k]);
+            sep = ", ";
+        }
+        if (!sep.equals(" (")) sb.append(')');
+        return sb.toString();
+    }
+}
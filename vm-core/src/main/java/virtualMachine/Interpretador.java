@@ -0,0 +1,374 @@
+package virtualMachine;
+
+// executa um Programa num ContextoExecucao. Não guarda estado de execução (só a
+// configuração), então a mesma instância e o mesmo Programa podem ser usados por
+// várias threads ao mesmo tempo, cada uma com o seu contexto.
+public final class Interpretador {
+
+    public static final long LIMITE_PASSOS = 1_000_000L;
+
+    private final ModoExecucao modo;
+    // compila laços quentes para bytecode JVM (só no modo SWITCH)
+    private final boolean jit;
+
+    public Interpretador() {
+        this(ModoExecucao.SWITCH, false);
+    }
+
+    public Interpretador(ModoExecucao modo, boolean jit) {
+        this.modo = modo;
+        this.jit = jit;
+    }
+
+    // executa até o fim
+    public void executa(Programa programa, ContextoExecucao c) {
+        executa(programa, c, Long.MAX_VALUE);
+    }
+
+    // executa no máximo cerca de 'maxPassos' passos (uma fatia) e devolve true se o programa
+    // terminou. O ponto de parada fica no contexto, e a próxima chamada continua dali.
+    // Superinstruções podem passar alguns passos da fatia; o limite de passos é sempre exato.
+    public boolean executa(Programa programa, ContextoExecucao c, long maxPassos) {
+        if (c.terminado) return true;
+        final long pausa = LIMITE_PASSOS - c.passos <= maxPassos ? LIMITE_PASSOS : c.passos + maxPassos;
+        final int[] ops = programa.op;
+        final int[] as = programa.a;
+        final int[] bs = programa.b;
+        final int n = ops.length;
+        final MemoriaVM m = c.getMemoria();
+        // com perfil ou rastro, sempre o switch: os nós encadeados e o JIT não passam por eles
+        final Perfilador perfil = c.perfilador;
+        final Rastro rastro = c.rastro;
+        final boolean instrumentado = perfil != null || rastro != null;
+        if (perfil != null) perfil.prepara(programa);
+
+        if (modo == ModoExecucao.ENCADEADO && !instrumentado) {
+            if (c.encadeada == null) c.encadeada = new ExecucaoEncadeada(c, programa, LIMITE_PASSOS);
+            boolean fim;
+            try {
+                fim = c.encadeada.executa(pausa);
+            } finally {
+                // também quando uma instrução lança erro: os passos até ela contam
+                c.pc = c.encadeada.getPc();
+                c.passos = c.encadeada.getPassos();
+                c.despachos = c.encadeada.getDespachos();
+            }
+            c.descarregaSaida();
+            c.terminado = fim;
+            return fim;
+        }
+
+        // programa verificado (Verificador) sem recursão: laço sem verificações por instrução
+        if (modo == ModoExecucao.SWITCH && !jit && !instrumentado) {
+            if (c.verificada == null && ExecucaoVerificada.serve(c, programa)) {
+                c.verificada = new ExecucaoVerificada(c, programa, LIMITE_PASSOS);
+            }
+            if (c.verificada != null && c.verificada.isAtiva()) {
+                boolean fim;
+                try {
+                    fim = c.verificada.executa(pausa);
+                } finally {
+                    c.pc = c.verificada.getPc();
+                    c.passos = c.verificada.getPassos();
+                    c.despachos = c.verificada.getDespachos();
+                }
+                if (fim || c.verificada.isAtiva()) {
+                    c.descarregaSaida();
+                    c.terminado = fim;
+                    return fim;
+                }
+                // um RETURN saiu do fluxo verificado: o resto segue no laço abaixo
+            }
+        }
+
+        if (jit && !instrumentado && c.jit == null) c.jit = new ExecutorJit(programa, c.getMensagens());
+        final ExecutorJit compilado = c.jit;
+
+        long steps = c.passos;
+        long despachos = c.despachos;
+        boolean executando = true;
+
+        int i = c.pc; // índice em 'program' (sem linhas NULL)
+        try {
+            while (i < n && executando) {
+                if (steps >= pausa) {
+                    if (pausa < LIMITE_PASSOS) {
+                        // fim da fatia: guarda o ponto de retomada
+                        c.pc = i;
+                        c.passos = steps;
+                        c.despachos = despachos;
+                        c.descarregaSaida();
+                        return false;
+                    }
+                    steps++;
+                    c.descarregaSaida();
+                    c.limiteExcedido = true;
+                    c.getMensagens().println("Limite de passos excedido (" + LIMITE_PASSOS + "). Possível loop infinito.");
+                    break;
+                }
+                steps++;
+
+                despachos++;
+                int op = ops[i];
+                int a = as[i];
+                int b = bs[i];
+
+                if (perfil != null) perfil.conta(i, m.getS());
+                if (rastro != null) {
+                    int s = m.getS();
+                    rastro.registra(steps, i, op, s >= 0 ? m.top() : 0, s);
+                }
+
+                // próxima instrução; saltos para o próprio índice avançam um (igual ao step() Python)
+                int prox = i + 1;
+                // execute
+                switch (op) {
+                    case Opcodes.START:
+                        m.setS(-1);
+                        break;
+
+                    case Opcodes.HLT:
+                        executando = false;
+                        c.imprime("\nExecução terminada (HLT).");
+                        break;
+
+                    case Opcodes.ALLOC: {
+                        // copia valores da memória para a pilha (igual Python) — NÃO zera memória
+                        for (int k = 0; k < b; k++) {
+                            // leitura segura de memoria m+k
+                            m.push(m.le(a + k));
+                        }
+                        break;
+                    }
+
+                    case Opcodes.DALLOC: {
+                        // copia valores da pilha de volta para a memória (ordem inversa) — igual Python
+                        for (int k = b - 1; k >= 0; k--) {
+                            if (m.getS() < 0) throw new RuntimeException("Stack underflow em DALLOC");
+                            m.escreve(a + k, m.pop());
+                        }
+                        break;
+                    }
+
+                    case Opcodes.LDC:
+                        m.push(a);
+                        break;
+
+                    case Opcodes.LDV: {
+                        m.push(m.le(a));
+                        break;
+                    }
+
+                    case Opcodes.STR: {
+                        int val = m.pop();
+                        m.escreve(a, val);
+                        break;
+                    }
+
+                    case Opcodes.STRK: {
+                        // mesmo efeito de STR a; LDV a, sem desempilhar e empilhar de novo
+                        if (m.getS() < 0) throw new RuntimeException("Pop em pilha vazia!");
+                        m.escreve(a, m.top());
+                        break;
+                    }
+
+                    // quadros: M[a] é a base das locais do nível; b é o número de locais / o deslocamento
+                    case Opcodes.ENTR:
+                        m.push(m.le(a));
+                        m.escreve(a, m.getS() + 1);
+                        m.reserva(b);
+                        break;
+
+                    case Opcodes.SAIR:
+                        if (b > 0) {
+                            if (m.getS() < b) throw new RuntimeException("Stack underflow em SAIR");
+                            m.setS(m.getS() - b);
+                        }
+                        m.escreve(a, m.pop());
+                        break;
+
+                    case Opcodes.LDL:
+                        m.push(m.le(local(m, a, b)));
+                        break;
+
+                    case Opcodes.STL: {
+                        int val = m.pop();
+                        m.escreve(local(m, a, b), val);
+                        break;
+                    }
+
+                    case Opcodes.ADD: binOp(m, (x,y)->x+y); break;
+                    case Opcodes.SUB: binOp(m, (x,y)->x-y); break;
+                    case Opcodes.MULT: binOp(m, (x,y)->x*y); break;
+                    case Opcodes.DIVI: binOp(m, (x,y)-> y==0 ? 0 : x/y); break;
+                    case Opcodes.INV: {
+                        int v = m.pop();
+                        m.push(-v);
+                        break;
+                    }
+                    case Opcodes.AND: binOp(m, (x,y)->(x==1 && y==1) ? 1 : 0); break;
+                    case Opcodes.OR: binOp(m, (x,y)->(x==1 || y==1) ? 1 : 0); break;
+                    case Opcodes.NEG: {
+                        int v = m.pop();
+                        m.push(1 - v);
+                        break;
+                    }
+                    case Opcodes.CME: binOp(m, (x,y)-> x<y?1:0); break;
+                    case Opcodes.CMA: binOp(m, (x,y)-> x>y?1:0); break;
+                    case Opcodes.CEQ: binOp(m, (x,y)-> x==y?1:0); break;
+                    case Opcodes.CDIF: binOp(m, (x,y)-> x!=y?1:0); break;
+                    case Opcodes.CMEQ: binOp(m, (x,y)-> x<=y?1:0); break;
+                    case Opcodes.CMAQ: binOp(m, (x,y)-> x>=y?1:0); break;
+
+                    // operando já ligado pelo Ligador: 'a' é o índice de destino
+                    case Opcodes.JMP:
+                        if (a != i) prox = a;
+                        break;
+
+                    case Opcodes.JMPF: {
+                        int cond = m.pop();
+                        if (cond == 0 && a != i) {
+                            prox = a;
+                        }
+                        break;
+                    }
+
+                    case Opcodes.CALL: {
+                        if (perfil != null) perfil.chamada(a);
+                        m.push(i + 1);
+                        if (a != i) prox = a;
+                        break;
+                    }
+
+                    case Opcodes.RETURN: {
+                        if (m.getS() < 0) throw new RuntimeException("RETURN com pilha vazia.");
+                        int ret = m.pop();
+                        if (perfil != null) perfil.retorno();
+                        if (ret != i) prox = ret;
+                        break;
+                    }
+
+                    case Opcodes.RD:
+                        m.push(c.leEntrada());
+                        break;
+
+                    case Opcodes.PRN: {
+                        int v = m.pop();
+                        c.imprime(v);
+                        break;
+                    }
+
+                    case Opcodes.NULL:
+                        // nada
+                        break;
+
+                    // ---------- superinstruções (Fusao) ----------
+                    // cada uma reproduz exatamente as escritas na memória/pilha da sequência
+                    // original e conta todos os passos; se o limite de passos cair no meio da
+                    // sequência, executa só o LDV e deixa o resto para as instruções originais.
+
+                    case Opcodes.F_LDV_LDC_CMP_JMPF:
+                    case Opcodes.F_LDV_LDV_CMP_JMPF: {
+                        if (steps + 3 > LIMITE_PASSOS) {
+                            m.push(m.le(a));
+                            break;
+                        }
+                        steps += 3;
+                        int t = m.getS();
+                        int x = m.le(a);
+                        int y;
+                        if (op == Opcodes.F_LDV_LDC_CMP_JMPF) {
+                            y = as[i + 1];
+                        } else {
+                            m.escreve(t + 1, x);
+                            y = m.le(as[i + 1]);
+                        }
+                        m.escreve(t + 2, y);
+                        int r = Opcodes.aplica(b, x, y);
+                        m.escreve(t + 1, r);
+                        int destino = as[i + 3];
+                        prox = (r == 0 && destino != i + 3) ? destino : i + 4;
+                        break;
+                    }
+
+                    case Opcodes.F_LDV_LDC_OP_STR:
+                    case Opcodes.F_LDV_LDV_OP_STR:
+                    case Opcodes.F_LDV_LDC_OP:
+                    case Opcodes.F_LDV_LDV_OP: {
+                        int tamanho = Fusao.tamanho(op);
+                        if (steps + tamanho - 1 > LIMITE_PASSOS) {
+                            m.push(m.le(a));
+                            break;
+                        }
+                        steps += tamanho - 1;
+                        int t = m.getS();
+                        int x = m.le(a);
+                        int y;
+                        if (op == Opcodes.F_LDV_LDC_OP_STR || op == Opcodes.F_LDV_LDC_OP) {
+                            y = as[i + 1];
+                        } else {
+                            m.escreve(t + 1, x);
+                            y = m.le(as[i + 1]);
+                        }
+                        m.escreve(t + 2, y);
+                        int r = Opcodes.aplica(b, x, y);
+                        m.escreve(t + 1, r);
+                        if (tamanho == 4) {
+                            m.escreve(as[i + 3], r); // STR z
+                        } else {
+                            m.setS(t + 1);
+                        }
+                        prox = i + tamanho;
+                        break;
+                    }
+
+                    default:
+                        throw new RuntimeException("Instrução inválida: " + programa.simbolos[a]);
+                } // fim switch
+
+                // salto para trás: candidato a laço quente (o JIT conta e, se já compilou, executa)
+                if (compilado != null && prox <= i) {
+                    int continua = compilado.entra(prox, m, steps, pausa);
+                    if (continua >= 0) {
+                        prox = continua;
+                        steps = compilado.getPassos();
+                    }
+                }
+
+                i = prox;
+            } // fim while
+        } catch (RuntimeException e) {
+            // erro numa instrução: o contexto fica com os passos dados até ela (inclusive)
+            c.pc = i;
+            c.passos = steps;
+            c.despachos = despachos;
+            throw e;
+        }
+
+        c.pc = i;
+        c.passos = steps;
+        c.despachos = despachos;
+        c.terminado = true;
+        c.descarregaSaida();
+        if (compilado != null) c.getMensagens().println(compilado.resumo());
+        return true;
+    }
+
+    // ---------- helpers ----------
+
+    private static void binOp(MemoriaVM m, Bin op) {
+        if (m.getS() < 1) throw new RuntimeException("Stack underflow em binOp");
+        int y = m.pop();
+        int x = m.pop();
+        m.push(op.apply(x, y));
+    }
+
+    private interface Bin { int apply(int x, int y); }
+
+    // endereço da local 'k' do quadro cuja base está em M[celula]
+    static int local(MemoriaVM m, int celula, int k) {
+        int e = m.le(celula) + k;
+        if (e < 0) throw new RuntimeException("Endereço de local inválido: " + e);
+        return e;
+    }
+}
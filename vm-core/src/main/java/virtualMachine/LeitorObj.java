@@ -0,0 +1,409 @@
+package virtualMachine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// leitura do .obj de texto direto para Programa, sem LinhaVM, Scanner, split nem regex:
+// percorre uma vez os bytes do arquivo mapeado, acha o mnemônico numa tabela e converte os
+// operandos no lugar. O resultado é o mesmo de Decodificador.decodifica(listaLinhas()),
+// inclusive nas esquisitices do parser antigo:
+//   - linha com TAB: rótulo = o que vem antes do primeiro TAB; depois dele, vazio ou só
+//     "NULL" = linha só de rótulo (com "NULL x" a instrução NULL existe);
+//   - linha sem TAB: o 1º token é instrução se for um mnemônico; senão é rótulo e o 2º token
+//     é a instrução, qualquer que seja ("NULL" = só rótulo). "NULL" sozinho vira instrução;
+//   - tokens separados por \s e aparados como String.trim (bytes <= ' ');
+//   - vírgulas são tiradas dos operandos; operando que não é inteiro vale 0;
+//   - fins de linha do Scanner: \n, \r\n, \r, U+0085, U+2028, U+2029.
+// Tokens com bytes não ASCII passam pelo mesmo caminho de String do parser antigo.
+final class LeitorObj {
+
+    private static final byte TAB = '\t';
+    private static final int MAX_TOKENS = 4;
+
+    // mnemônicos textuais empacotados (até 8 letras maiúsculas ASCII num long)
+    private static final long[] CHAVES = new long[64];
+    private static final int[] CODIGOS = new int[64];
+    static {
+        for (int k = 0; k <= Opcodes.ultimo(); k++) {
+            if (!Opcodes.ehTextual(k)) continue;
+            long chave = 0;
+            for (char ch : Opcodes.nome(k).toCharArray()) chave = (chave << 8) | ch;
+            int h = espalha(chave);
+            while (CHAVES[h] != 0) h = (h + 1) & (CHAVES.length - 1);
+            CHAVES[h] = chave;
+            CODIGOS[h] = k;
+        }
+    }
+
+    private final ByteBuffer buf;
+
+    // posições [inicio, fim) dos tokens da linha atual
+    private final int[] inicioToken = new int[MAX_TOKENS];
+    private final int[] fimToken = new int[MAX_TOKENS];
+    private int tokens;
+
+    // bytes de um operando já sem vírgulas e aparado
+    private byte[] rascunho = new byte[64];
+    private int tamanhoRascunho;
+    private boolean naoAscii;
+
+    private int[] op = new int[1024];
+    private int[] a = new int[1024];
+    private int[] b = new int[1024];
+    private int n;
+
+    private final Simbolos simbolos = new Simbolos();
+    private String[] nomesRotulos = new String[64];
+    private int[] enderecosRotulos = new int[64];
+    private int rotulos;
+
+    private LeitorObj(ByteBuffer buf) {
+        this.buf = buf;
+    }
+
+    // null quando não dá para garantir o mesmo resultado do parser antigo (charset padrão que
+    // não é UTF-8, locale com maiúsculas especiais, UTF-8 malformado) ou quando a leitura
+    // falha; nesses casos quem chama usa listaLinhas, que também reporta o erro como sempre
+    static Programa le(Path arquivo) {
+        if (!Charset.defaultCharset().equals(StandardCharsets.UTF_8) || !"i".toUpperCase().equals("I")) {
+            return null;
+        }
+        try (FileChannel ch = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            return new LeitorObj(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size())).decodifica();
+        } catch (IOException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    static Programa le(ByteBuffer conteudo) {
+        return new LeitorObj(conteudo.duplicate()).decodifica();
+    }
+
+    private Programa decodifica() {
+        int limite = buf.limit();
+        boolean soAscii = true;
+        int p = 0;
+        while (p < limite) {
+            int fim = p;
+            int proximo = -1;
+            while (fim < limite) {
+                int c = buf.get(fim) & 0xFF;
+                if (c == '\n') { proximo = fim + 1; break; }
+                if (c >= 0x80) soAscii = false;
+                if (c == '\r') {
+                    proximo = (fim + 1 < limite && buf.get(fim + 1) == '\n') ? fim + 2 : fim + 1;
+                    break;
+                }
+                if (c == 0xC2 && fim + 1 < limite && (buf.get(fim + 1) & 0xFF) == 0x85) { proximo = fim + 2; break; }
+                if (c == 0xE2 && fim + 2 < limite && (buf.get(fim + 1) & 0xFF) == 0x80
+                        && ((buf.get(fim + 2) & 0xFF) == 0xA8 || (buf.get(fim + 2) & 0xFF) == 0xA9)) {
+                    proximo = fim + 3;
+                    break;
+                }
+                fim++;
+            }
+            linha(p, fim);
+            p = proximo < 0 ? limite : proximo;
+        }
+        // o Scanner para em silêncio no primeiro byte inválido; aí só o caminho antigo reproduz
+        if (!soAscii && !utf8Valido()) return null;
+
+        String[] nomes = Arrays.copyOf(nomesRotulos, rotulos);
+        int[] enderecos = Arrays.copyOf(enderecosRotulos, rotulos);
+        return new Programa(Arrays.copyOf(op, n), Arrays.copyOf(a, n), Arrays.copyOf(b, n),
+                simbolos.nomes(), nomes, enderecos, false);
+    }
+
+    private void linha(int inicio, int fim) {
+        int i = apara(inicio, fim, true);
+        int f = apara(inicio, fim, false);
+        if (i >= f) return; // linha em branco
+
+        int tab = -1;
+        for (int k = inicio; k < fim; k++) {
+            if (buf.get(k) == TAB) { tab = k; break; }
+        }
+
+        String rotulo;
+        int instrucao; // índice do token da instrução (-1 = linha só de rótulo)
+        if (tab >= 0) {
+            rotulo = texto(apara(inicio, tab, true), apara(inicio, tab, false));
+            int ri = apara(tab + 1, fim, true);
+            int rf = apara(tab + 1, fim, false);
+            if (ri >= rf || ehNull(ri, rf)) {
+                instrucao = -1;
+            } else {
+                separa(ri, rf);
+                instrucao = 0;
+            }
+        } else {
+            separa(i, f);
+            if (codigoToken(0) != Opcodes.INVALIDA) {
+                rotulo = "";
+                instrucao = 0;
+            } else {
+                rotulo = texto(apara(inicioToken[0], fimToken[0], true), apara(inicioToken[0], fimToken[0], false));
+                if (tokens == 1 || ehNull(apara(inicioToken[1], fimToken[1], true),
+                        apara(inicioToken[1], fimToken[1], false))) {
+                    instrucao = -1;
+                } else {
+                    instrucao = 1;
+                }
+            }
+        }
+
+        if (instrucao >= 0 && vazio(instrucao)) instrucao = -1;
+        if (!rotulo.isEmpty()) {
+            if (rotulos == nomesRotulos.length) {
+                nomesRotulos = Arrays.copyOf(nomesRotulos, rotulos * 2);
+                enderecosRotulos = Arrays.copyOf(enderecosRotulos, rotulos * 2);
+            }
+            nomesRotulos[rotulos] = rotulo;
+            enderecosRotulos[rotulos++] = n;
+        }
+        if (instrucao < 0) return;
+
+        if (n == op.length) {
+            op = Arrays.copyOf(op, n * 2);
+            a = Arrays.copyOf(a, n * 2);
+            b = Arrays.copyOf(b, n * 2);
+        }
+        int codigo = codigoToken(instrucao);
+        op[n] = codigo;
+        if (Opcodes.ehSalto(codigo)) {
+            a[n] = simboloOperando(instrucao + 1);
+            b[n] = 0;
+        } else if (codigo == Opcodes.INVALIDA) {
+            a[n] = simbolos.indice(mnemonico(instrucao));
+            b[n] = 0;
+        } else {
+            a[n] = inteiro(instrucao + 1);
+            b[n] = inteiro(instrucao + 2);
+        }
+        n++;
+    }
+
+    // ---------- tokens ----------
+
+    // divide [i, f) em tokens separados por \s (só os MAX_TOKENS primeiros interessam)
+    private void separa(int i, int f) {
+        tokens = 0;
+        int k = i;
+        while (k < f && tokens < MAX_TOKENS) {
+            while (k < f && espaco(buf.get(k))) k++;
+            if (k >= f) break;
+            int ini = k;
+            while (k < f && !espaco(buf.get(k))) k++;
+            inicioToken[tokens] = ini;
+            fimToken[tokens++] = k;
+        }
+    }
+
+    // \s do regex (o parser antigo usa split("\\s+"))
+    private static boolean espaco(byte c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
+
+    // como String.trim: bytes <= ' ' nas pontas (bytes não ASCII nunca são aparados)
+    private int apara(int i, int f, boolean inicio) {
+        if (inicio) {
+            while (i < f && (buf.get(i) & 0xFF) <= ' ') i++;
+            return i;
+        }
+        while (f > i && (buf.get(f - 1) & 0xFF) <= ' ') f--;
+        return f;
+    }
+
+    private boolean vazio(int t) {
+        return apara(inicioToken[t], fimToken[t], true) >= apara(inicioToken[t], fimToken[t], false);
+    }
+
+    // "NULL" ignorando maiúsculas (nenhum caractere não ASCII vira N, U ou L)
+    private boolean ehNull(int i, int f) {
+        return f - i == 4
+                && (buf.get(i) | 0x20) == 'n' && (buf.get(i + 1) | 0x20) == 'u'
+                && (buf.get(i + 2) | 0x20) == 'l' && (buf.get(i + 3) | 0x20) == 'l';
+    }
+
+    // código do token t como instrução (INVALIDA se não for mnemônico ou não existir)
+    private int codigoToken(int t) {
+        if (t >= tokens) return Opcodes.INVALIDA;
+        int i = apara(inicioToken[t], fimToken[t], true);
+        int f = apara(inicioToken[t], fimToken[t], false);
+        if (f - i > 8 || f <= i) return Opcodes.INVALIDA;
+        long chave = 0;
+        for (int k = i; k < f; k++) {
+            int c = buf.get(k) & 0xFF;
+            if (c >= 0x80) return Opcodes.codigo(mnemonico(t)); // toUpperCase de não ASCII
+            if (c >= 'a' && c <= 'z') c -= 32;
+            chave = (chave << 8) | c;
+        }
+        int h = espalha(chave);
+        while (CHAVES[h] != 0) {
+            if (CHAVES[h] == chave) return CODIGOS[h];
+            h = (h + 1) & (CHAVES.length - 1);
+        }
+        return Opcodes.INVALIDA;
+    }
+
+    private static int espalha(long chave) {
+        long h = chave * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 58); // 6 bits = 64 posições
+    }
+
+    // instrução inválida: o nome vai para os símbolos como o parser antigo o deixaria
+    private String mnemonico(int t) {
+        int i = apara(inicioToken[t], fimToken[t], true);
+        int f = apara(inicioToken[t], fimToken[t], false);
+        return texto(i, f).toUpperCase().trim().toUpperCase();
+    }
+
+    // copia o operando t para o rascunho sem vírgulas e aparado; false se não houver operando
+    private boolean operando(int t) {
+        tamanhoRascunho = 0;
+        naoAscii = false;
+        if (t >= tokens) return false;
+        for (int k = inicioToken[t]; k < fimToken[t]; k++) {
+            byte c = buf.get(k);
+            if (c == ',') continue;
+            if (c < 0) naoAscii = true;
+            if (tamanhoRascunho == rascunho.length) rascunho = Arrays.copyOf(rascunho, tamanhoRascunho * 2);
+            rascunho[tamanhoRascunho++] = c;
+        }
+        return true;
+    }
+
+    // mesmo resultado de Decodificador.paramVal sobre o operando
+    private int inteiro(int t) {
+        if (!operando(t)) return 0;
+        if (naoAscii) {
+            return Decodificador.paramVal(new String(rascunho, 0, tamanhoRascunho, StandardCharsets.UTF_8));
+        }
+        int i = 0;
+        int f = tamanhoRascunho;
+        while (i < f && (rascunho[i] & 0xFF) <= ' ') i++;
+        while (f > i && (rascunho[f - 1] & 0xFF) <= ' ') f--;
+        if (i >= f) return 0;
+        boolean negativo = false;
+        if (rascunho[i] == '-' || rascunho[i] == '+') {
+            negativo = rascunho[i] == '-';
+            if (++i >= f) return 0;
+        }
+        long v = 0;
+        for (int k = i; k < f; k++) {
+            int d = rascunho[k] - '0';
+            if (d < 0 || d > 9) return 0;
+            v = v * 10 + d;
+            if (v > 2147483648L) return 0; // Integer.parseInt falharia
+        }
+        if (negativo) v = -v;
+        if (v > Integer.MAX_VALUE) return 0;
+        return (int) v;
+    }
+
+    // rótulo usado por salto: índice nos símbolos, sem criar String a cada ocorrência
+    private int simboloOperando(int t) {
+        operando(t);
+        if (naoAscii) {
+            return simbolos.indice(new String(rascunho, 0, tamanhoRascunho, StandardCharsets.UTF_8).trim());
+        }
+        int i = 0;
+        int f = tamanhoRascunho;
+        while (i < f && (rascunho[i] & 0xFF) <= ' ') i++;
+        while (f > i && (rascunho[f - 1] & 0xFF) <= ' ') f--;
+        return simbolos.indice(rascunho, i, f);
+    }
+
+    private boolean utf8Valido() {
+        try {
+            StandardCharsets.UTF_8.newDecoder().decode(buf.duplicate().clear());
+            return true;
+        } catch (CharacterCodingException e) {
+            return false;
+        }
+    }
+
+    private String texto(int i, int f) {
+        if (i >= f) return "";
+        byte[] bytes = new byte[f - i];
+        buf.get(i, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // tabela de símbolos: nomes ASCII procurados pelos bytes (a String só é criada na
+    // primeira vez); nomes com outros caracteres vão por um mapa comum
+    private static final class Simbolos {
+        private int[] tabela = new int[64]; // índice + 1; 0 = vazio
+        private byte[][] chaves = new byte[16][];
+        private String[] nomes = new String[16];
+        private int quantidade;
+        private final Map<String, Integer> outros = new HashMap<>();
+
+        int indice(byte[] origem, int i, int f) {
+            int h = hash(origem, i, f) & (tabela.length - 1);
+            while (tabela[h] != 0) {
+                byte[] chave = chaves[tabela[h] - 1];
+                if (Arrays.equals(chave, 0, chave.length, origem, i, f)) return tabela[h] - 1;
+                h = (h + 1) & (tabela.length - 1);
+            }
+            int k = novo(new String(origem, i, f - i, StandardCharsets.US_ASCII));
+            chaves[k] = Arrays.copyOfRange(origem, i, f);
+            tabela[h] = k + 1;
+            if (quantidade * 2 > tabela.length) redimensiona();
+            return k;
+        }
+
+        int indice(String nome) {
+            boolean ascii = true;
+            for (int k = 0; k < nome.length() && ascii; k++) ascii = nome.charAt(k) < 0x80;
+            if (ascii) {
+                byte[] bytes = nome.getBytes(StandardCharsets.US_ASCII);
+                return indice(bytes, 0, bytes.length);
+            }
+            Integer k = outros.get(nome);
+            if (k == null) {
+                k = novo(nome);
+                outros.put(nome, k);
+            }
+            return k;
+        }
+
+        private int novo(String nome) {
+            if (quantidade == nomes.length) {
+                nomes = Arrays.copyOf(nomes, quantidade * 2);
+                chaves = Arrays.copyOf(chaves, quantidade * 2);
+            }
+            nomes[quantidade] = nome;
+            return quantidade++;
+        }
+
+        private void redimensiona() {
+            tabela = new int[tabela.length * 2];
+            for (int k = 0; k < quantidade; k++) {
+                if (chaves[k] == null) continue;
+                int h = hash(chaves[k], 0, chaves[k].length) & (tabela.length - 1);
+                while (tabela[h] != 0) h = (h + 1) & (tabela.length - 1);
+                tabela[h] = k + 1;
+            }
+        }
+
+        private static int hash(byte[] b, int i, int f) {
+            int h = 0;
+            for (int k = i; k < f; k++) h = 31 * h + b[k];
+            return h ^ (h >>> 16);
+        }
+
+        String[] nomes() {
+            return Arrays.copyOf(nomes, quantidade);
+        }
+    }
+}
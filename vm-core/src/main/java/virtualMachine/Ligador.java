@@ -0,0 +1,38 @@
+package virtualMachine;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// passo de ligação feito no carregamento: troca o rótulo de JMP/JMPF/CALL pelo índice
+// absoluto da instrução de destino. Programas com rótulo indefinido ou duplicado são
+// rejeitados aqui, antes de executar qualquer passo.
+public final class Ligador {
+
+    private Ligador() { }
+
+    public static Programa liga(Programa p) {
+        if (p.ligado) return p;
+
+        Map<String, Integer> rotulos = new HashMap<>();
+        for (int k = 0; k < p.nomesRotulos.length; k++) {
+            Integer anterior = rotulos.put(p.nomesRotulos[k], p.enderecosRotulos[k]);
+            if (anterior != null) {
+                throw new RuntimeException("Rótulo duplicado: " + p.nomesRotulos[k]);
+            }
+        }
+
+        int[] a = p.a.clone();
+        for (int i = 0; i < p.op.length; i++) {
+            if (!Opcodes.ehSalto(p.op[i])) continue;
+            String nome = p.simbolos[p.a[i]];
+            Integer destino = rotulos.get(nome);
+            if (destino == null) {
+                throw new RuntimeException("[" + Opcodes.nome(p.op[i]) + "] rótulo não encontrado: " + nome
+                        + " (instrução " + i + ")");
+            }
+            a[i] = destino;
+        }
+
+        return new Programa(p.op, a, p.b, p.simbolos, p.nomesRotulos, p.enderecosRotulos, true);
+    }
+}
@@ -0,0 +1,155 @@
+package virtualMachine;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+// memória da VM em um vetor int[] (pilha incluída: 's' indexa o mesmo vetor).
+// Cresce em blocos (dobrando) até o limite configurado; objetos Memoria só são
+// criados quando alguém pede a visão em lista (GUI / getMemoria()).
+public final class MemoriaVM {
+
+    public static final int LIMITE_PADRAO = 16 * 1024 * 1024;
+
+    private int[] dados;
+    // posições já "tocadas" (mesmo tamanho que a antiga List<Memoria> teria)
+    private int tamanho;
+    private final int limite;
+
+    // topo da pilha
+    private int s = -1;
+
+    // páginas escritas desde o último ponto de controle (1 bit por página); null = sem rastreio
+    static final int BITS_PAGINA = 10;
+    private long[] sujas;
+
+    public MemoriaVM() {
+        this(2001, LIMITE_PADRAO);
+    }
+
+    public MemoriaVM(int capacidadeInicial, int limite) {
+        if (limite <= 0) throw new IllegalArgumentException("Limite de memória inválido: " + limite);
+        this.limite = limite;
+        this.dados = new int[Math.max(1, Math.min(capacidadeInicial, limite))];
+    }
+
+    // equivalente ao antigo ensureMemorySize: garante que 'indice' existe
+    public void garante(int indice) {
+        if (indice < tamanho || indice < 0) return;
+        if (indice >= dados.length) cresce(indice);
+        tamanho = indice + 1;
+    }
+
+    private void cresce(int indice) {
+        if (indice >= limite) {
+            throw new RuntimeException("Limite de memória excedido (" + limite + " posições)");
+        }
+        long novo = Math.max((long) indice + 1, (long) dados.length * 2);
+        dados = Arrays.copyOf(dados, (int) Math.min(novo, limite));
+    }
+
+    public int le(int endereco) {
+        garante(endereco);
+        return dados[endereco];
+    }
+
+    public void escreve(int endereco, int valor) {
+        garante(endereco);
+        dados[endereco] = valor;
+        if (sujas != null) marca(endereco);
+    }
+
+    public void push(int v) {
+        int t = s + 1;
+        garante(t);
+        dados[t] = v;
+        s = t;
+        if (sujas != null) marca(t);
+    }
+
+    // empilha n posições sem escrever nelas (ficam com o que já havia na memória)
+    public void reserva(int n) {
+        if (n <= 0) return;
+        long t = (long) s + n;
+        if (t >= limite) throw new RuntimeException("Limite de memória excedido (" + limite + " posições)");
+        garante((int) t);
+        s = (int) t;
+    }
+
+    public int pop() {
+        if (s < 0) {
+            throw new RuntimeException("Pop em pilha vazia!");
+        }
+        return dados[s--];
+    }
+
+    public int top() {
+        if (s < 0) throw new RuntimeException("Top em pilha vazia!");
+        return dados[s];
+    }
+
+    public int getS() { return s; }
+    public void setS(int s) { this.s = s; }
+
+    public int tamanho() { return tamanho; }
+    // copia as posições tocadas [0, tamanho) para 'destino' (visões que não querem um objeto por posição)
+    public void copia(int[] destino) {
+        System.arraycopy(dados, 0, destino, 0, tamanho);
+    }
+    // vetor cru para o código gerado pelo JIT (pode ser trocado quando a memória cresce)
+    int[] dados() { return dados; }
+    public int getLimite() { return limite; }
+
+    // ---------- páginas sujas (PontoControle) ----------
+
+    // liga o rastreio com todas as páginas limpas
+    void rastreiaEscritas() {
+        int paginas = ((limite - 1) >>> BITS_PAGINA) + 1;
+        sujas = new long[(paginas + 63) >>> 6];
+    }
+
+    boolean rastreandoEscritas() { return sujas != null; }
+
+    private void marca(int endereco) {
+        int p = endereco >>> BITS_PAGINA;
+        sujas[p >>> 6] |= 1L << p;
+    }
+
+    // para quem escreve direto no vetor (execução verificada): considera suja toda a faixa tocada
+    void sujaTudo() {
+        if (sujas == null || tamanho == 0) return;
+        int ultima = (tamanho - 1) >>> BITS_PAGINA;
+        for (int p = 0; p <= ultima; p++) sujas[p >>> 6] |= 1L << p;
+    }
+
+    // para quem escreve direto no vetor e sabe onde (JIT): marca as páginas de [de, ate]
+    void sujaFaixa(int de, int ate) {
+        if (sujas == null) return;
+        de = Math.max(de, 0);
+        ate = Math.min(ate, tamanho - 1);
+        if (de > ate) return;
+        for (int p = de >>> BITS_PAGINA; p <= ate >>> BITS_PAGINA; p++) sujas[p >>> 6] |= 1L << p;
+    }
+
+    boolean suja(int pagina) {
+        return (sujas[pagina >>> 6] & (1L << pagina)) != 0;
+    }
+
+    void limpaSujas() {
+        Arrays.fill(sujas, 0L);
+    }
+
+    // visão somente leitura no formato antigo (um Memoria por posição, criado sob demanda)
+    public List<Memoria> comoLista() {
+        return new AbstractList<>() {
+            @Override
+            public Memoria get(int index) {
+                if (index < 0 || index >= tamanho) throw new IndexOutOfBoundsException(index);
+                return new Memoria(index, dados[index]);
+            }
+
+            @Override
+            public int size() { return tamanho; }
+        };
+    }
+}
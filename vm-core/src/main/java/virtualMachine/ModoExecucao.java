@@ -0,0 +1,9 @@
+package virtualMachine;
+
+// motor usado por Interpretador.executa
+public enum ModoExecucao {
+    // laço único com switch sobre os vetores do programa (aceita JIT)
+    SWITCH,
+    // cada instrução vira um nó já ligado ao próximo (ExecucaoEncadeada)
+    ENCADEADO
+}
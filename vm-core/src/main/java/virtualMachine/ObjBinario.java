@@ -0,0 +1,227 @@
+package virtualMachine;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// formato binário (.mvdb) de programa já decodificado e ligado.
+//
+//   cabeçalho (32 bytes, little-endian):
+//     int magico "MVDB" | int versao | int flags | int nInstrucoes
+//     int nRotulos | int nSimbolos | int reservado | int reservado
+//   tabela de instruções, em colunas: int op[n] | int a[n] | int b[n]
+//   seção de rótulos/depuração: nRotulos x (int endereco, short tamanho, bytes UTF-8)
+//   seção de símbolos: nSimbolos x (short tamanho, bytes UTF-8)
+//
+// Os saltos já estão resolvidos (operando A = índice da instrução), então carregar
+// é só mapear o arquivo e copiar as três colunas em bloco.
+public final class ObjBinario {
+
+    public static final int MAGICO = 0x4244564D; // "MVDB" lido em little-endian
+    public static final int VERSAO = 1;
+    public static final String EXTENSAO = ".mvdb";
+
+    private static final int TAMANHO_CABECALHO = 32;
+    private static final int FLAG_LIGADO = 1;
+
+    private ObjBinario() { }
+
+    // verifica pelos 4 primeiros bytes se o arquivo está no formato binário
+    public static boolean ehBinario(Path arquivo) {
+        try (FileChannel ch = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            if (ch.size() < TAMANHO_CABECALHO) return false;
+            ByteBuffer buf = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            ch.read(buf, 0);
+            return buf.getInt(0) == MAGICO;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public static Programa carrega(Path arquivo) throws IOException {
+        try (FileChannel ch = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            MappedByteBuffer mapa = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            return le(mapa);
+        }
+    }
+
+    static Programa le(ByteBuffer origem) {
+        ByteBuffer buf = origem.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (buf.remaining() < TAMANHO_CABECALHO || buf.getInt(0) != MAGICO) {
+            throw new RuntimeException("Arquivo não está no formato binário MVD");
+        }
+        int versao = buf.getInt(4);
+        if (versao != VERSAO) {
+            throw new RuntimeException("Versão do formato binário não suportada: " + versao);
+        }
+        if ((buf.getInt(8) & FLAG_LIGADO) == 0) {
+            throw new RuntimeException("Arquivo binário sem ligação (saltos não resolvidos)");
+        }
+        int n = buf.getInt(12);
+        int nRotulos = buf.getInt(16);
+        int nSimbolos = buf.getInt(20);
+        if (n < 0 || nRotulos < 0 || nSimbolos < 0
+                || (long) TAMANHO_CABECALHO + 12L * n + 6L * nRotulos + 2L * nSimbolos > buf.limit()) {
+            throw new RuntimeException("Arquivo binário truncado ou corrompido");
+        }
+
+        int[] op = new int[n];
+        int[] a = new int[n];
+        int[] b = new int[n];
+        buf.position(TAMANHO_CABECALHO);
+        buf.asIntBuffer().get(op);
+        buf.position(TAMANHO_CABECALHO + 4 * n);
+        buf.asIntBuffer().get(a);
+        buf.position(TAMANHO_CABECALHO + 8 * n);
+        buf.asIntBuffer().get(b);
+        buf.position(TAMANHO_CABECALHO + 12 * n);
+
+        // o tamanho dos nomes só aparece ao ler: arquivo cortado no meio deles acaba o buffer
+        String[] nomesRotulos = new String[nRotulos];
+        int[] enderecosRotulos = new int[nRotulos];
+        String[] simbolos = new String[nSimbolos];
+        try {
+            for (int k = 0; k < nRotulos; k++) {
+                enderecosRotulos[k] = buf.getInt();
+                nomesRotulos[k] = leTexto(buf);
+                if (enderecosRotulos[k] < 0 || enderecosRotulos[k] > n) {
+                    throw new RuntimeException("Endereço do rótulo " + nomesRotulos[k] + " fora do programa: " + enderecosRotulos[k]);
+                }
+            }
+            for (int k = 0; k < nSimbolos; k++) {
+                simbolos[k] = leTexto(buf);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new RuntimeException("Arquivo binário truncado ou corrompido");
+        }
+
+        for (int i = 0; i < n; i++) {
+            if (!Opcodes.ehTextual(op[i]) && op[i] != Opcodes.INVALIDA) {
+                throw new RuntimeException("Opcode inválido no arquivo binário: " + op[i] + " (instrução " + i + ")");
+            }
+            if (Opcodes.ehSalto(op[i]) && (a[i] < 0 || a[i] > n)) {
+                throw new RuntimeException("Destino de salto fora do programa na instrução " + i);
+            }
+            // INVALIDA guarda em 'a' o índice do mnemônico na tabela de símbolos (mensagem do erro)
+            if (op[i] == Opcodes.INVALIDA && (a[i] < 0 || a[i] >= nSimbolos)) {
+                throw new RuntimeException("Símbolo fora da tabela na instrução " + i);
+            }
+        }
+
+        return new Programa(op, a, b, simbolos, nomesRotulos, enderecosRotulos, true);
+    }
+
+    public static void grava(Programa p, Path destino) throws IOException {
+        Programa ligado = Ligador.liga(p);
+        int n = ligado.op.length;
+        for (int i = 0; i < n; i++) {
+            if (Opcodes.ehFundida(ligado.op[i])) {
+                throw new IllegalArgumentException("Programa com superinstruções não pode ser gravado; grave antes da fusão");
+            }
+        }
+
+        byte[][] nomes = new byte[ligado.nomesRotulos.length][];
+        byte[][] simbolos = new byte[ligado.simbolos.length][];
+        int tamanho = TAMANHO_CABECALHO + 12 * n;
+        for (int k = 0; k < nomes.length; k++) {
+            nomes[k] = bytesTexto(ligado.nomesRotulos[k]);
+            tamanho += 6 + nomes[k].length;
+        }
+        for (int k = 0; k < simbolos.length; k++) {
+            simbolos[k] = bytesTexto(ligado.simbolos[k]);
+            tamanho += 2 + simbolos[k].length;
+        }
+
+        ByteBuffer buf = ByteBuffer.allocate(tamanho).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(MAGICO).putInt(VERSAO).putInt(FLAG_LIGADO).putInt(n)
+                .putInt(nomes.length).putInt(simbolos.length).putInt(0).putInt(0);
+        for (int v : ligado.op) buf.putInt(v);
+        for (int v : ligado.a) buf.putInt(v);
+        for (int v : ligado.b) buf.putInt(v);
+        for (int k = 0; k < nomes.length; k++) {
+            buf.putInt(ligado.enderecosRotulos[k]);
+            buf.putShort((short) nomes[k].length).put(nomes[k]);
+        }
+        for (byte[] s : simbolos) {
+            buf.putShort((short) s.length).put(s);
+        }
+
+        Files.write(destino, buf.array());
+    }
+
+    // reconstrói a listagem (rótulos + instruções) para a tabela da GUI
+    public static List<LinhaVM> paraLinhas(Programa p) {
+        int n = p.op.length;
+        // rótulos agrupados por endereço (vários rótulos podem apontar para a mesma instrução)
+        Map<Integer, List<String>> porEndereco = new HashMap<>();
+        for (int k = 0; k < p.nomesRotulos.length; k++) {
+            porEndereco.computeIfAbsent(p.enderecosRotulos[k], e -> new ArrayList<>()).add(p.nomesRotulos[k]);
+        }
+
+        List<LinhaVM> linhas = new ArrayList<>();
+        int numeroLinha = 1;
+        for (int i = 0; i <= n; i++) {
+            for (String rotulo : porEndereco.getOrDefault(i, List.of())) {
+                linhas.add(new LinhaVM(numeroLinha++, rotulo, "", "", "", ""));
+            }
+            if (i == n) break;
+
+            int op = p.op[i];
+            String nome = Opcodes.nome(op);
+            String var1 = "";
+            String var2 = "";
+            if (Opcodes.ehSalto(op)) {
+                List<String> destino = porEndereco.get(p.a[i]);
+                var1 = destino == null ? String.valueOf(p.a[i]) : destino.get(0);
+            } else if (op == Opcodes.INVALIDA) {
+                nome = p.simbolos[p.a[i]];
+            } else if (op == Opcodes.LDC || op == Opcodes.LDV || op == Opcodes.STR || op == Opcodes.STRK) {
+                var1 = String.valueOf(p.a[i]);
+            } else if (op == Opcodes.ALLOC || op == Opcodes.DALLOC || op == Opcodes.ENTR || op == Opcodes.SAIR
+                    || op == Opcodes.LDL || op == Opcodes.STL) {
+                var1 = String.valueOf(p.a[i]);
+                var2 = String.valueOf(p.b[i]);
+            }
+            linhas.add(new LinhaVM(numeroLinha++, "", nome, var1, var2, ""));
+        }
+        return linhas;
+    }
+
+    private static byte[] bytesTexto(String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) throw new RuntimeException("Nome grande demais para o formato binário: " + s);
+        return bytes;
+    }
+
+    private static String leTexto(ByteBuffer buf) {
+        int tamanho = buf.getShort() & 0xFFFF;
+        byte[] bytes = new byte[tamanho];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // conversor: java virtualMachine.ObjBinario entrada.obj [saida.mvdb]
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Uso: java virtualMachine.ObjBinario <entrada.obj> [saida" + EXTENSAO + "]");
+            return;
+        }
+        String entrada = args[0];
+        String saida = args.length > 1 ? args[1] : entrada.replaceFirst("\\.obj$", "") + EXTENSAO;
+
+        Programa p = new VirtualMachine(entrada).carregaPrograma();
+        grava(p, Path.of(saida));
+        System.out.println("Arquivo '" + saida + "' gerado (" + p.tamanho() + " instruções).");
+    }
+}
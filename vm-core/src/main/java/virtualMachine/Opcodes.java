@@ -0,0 +1,133 @@
+package virtualMachine;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// códigos inteiros das instruções da MVD (usados pelo programa decodificado)
+public final class Opcodes {
+
+    public static final int START = 0;
+    public static final int LDC = 1;
+    public static final int LDV = 2;
+    public static final int STR = 3;
+    public static final int ADD = 4;
+    public static final int SUB = 5;
+    public static final int MULT = 6;
+    public static final int DIVI = 7;
+    public static final int INV = 8;
+    public static final int NEG = 9;
+    public static final int AND = 10;
+    public static final int OR = 11;
+    public static final int CME = 12;
+    public static final int CMA = 13;
+    public static final int CEQ = 14;
+    public static final int CDIF = 15;
+    public static final int CMEQ = 16;
+    public static final int CMAQ = 17;
+    public static final int RD = 18;
+    public static final int PRN = 19;
+    public static final int JMP = 20;
+    public static final int JMPF = 21;
+    public static final int ALLOC = 22;
+    public static final int DALLOC = 23;
+    public static final int CALL = 24;
+    public static final int RETURN = 25;
+    public static final int HLT = 26;
+    public static final int NULL = 27;
+
+    // mnemônico desconhecido: só gera erro se for executado (igual ao switch antigo)
+    public static final int INVALIDA = 28;
+
+    // superinstruções internas criadas pela Fusao (não existem no texto do .obj).
+    // Ficam no índice da primeira instrução da sequência; as seguintes continuam no lugar.
+    public static final int F_LDV_LDC_CMP_JMPF = 29; // LDV x; LDC k; <comparação>; JMPF L
+    public static final int F_LDV_LDV_CMP_JMPF = 30; // LDV x; LDV y; <comparação>; JMPF L
+    public static final int F_LDV_LDC_OP_STR = 31;   // LDV x; LDC k; <operação>; STR z
+    public static final int F_LDV_LDV_OP_STR = 32;   // LDV x; LDV y; <operação>; STR z
+    public static final int F_LDV_LDC_OP = 33;       // LDV x; LDC k; <operação>
+    public static final int F_LDV_LDV_OP = 34;       // LDV x; LDV y; <operação>
+
+    // extensões do conjunto de instruções (aceitas no texto do .obj)
+    public static final int STRK = 35; // armazena o topo em M[x] sem desempilhar (= STR x; LDV x)
+    // quadros de ativação: M[x] é a célula de quadro (base das locais do nível), n o número de locais
+    public static final int ENTR = 36; // ENTR x n: empilha M[x], M[x] = s + 1, reserva n posições
+    public static final int SAIR = 37; // SAIR x n: libera n posições e desempilha em M[x]
+    public static final int LDL = 38;  // LDL x k: empilha M[M[x] + k]
+    public static final int STL = 39;  // STL x k: desempilha em M[M[x] + k]
+
+    private static final String[] NOMES = {
+            "START","LDC","LDV","STR","ADD","SUB","MULT","DIVI",
+            "INV","NEG","AND","OR","CME","CMA","CEQ","CDIF","CMEQ","CMAQ",
+            "RD","PRN","JMP","JMPF","ALLOC","DALLOC","CALL","RETURN","HLT","NULL",
+            "INVALIDA",
+            "LDV+LDC+CMP+JMPF","LDV+LDV+CMP+JMPF","LDV+LDC+OP+STR","LDV+LDV+OP+STR",
+            "LDV+LDC+OP","LDV+LDV+OP",
+            "STRK","ENTR","SAIR","LDL","STL"
+    };
+
+    private static final Map<String, Integer> CODIGOS = new HashMap<>();
+    static {
+        for (int k = 0; k < NOMES.length; k++) {
+            if (ehTextual(k)) CODIGOS.put(NOMES[k], k);
+        }
+    }
+
+    private Opcodes() { }
+
+    // retorna o código do mnemônico (já em maiúsculas) ou INVALIDA
+    public static int codigo(String mnemonico) {
+        Integer c = CODIGOS.get(mnemonico);
+        return c == null ? INVALIDA : c;
+    }
+
+    public static String nome(int codigo) {
+        return (codigo >= 0 && codigo < NOMES.length) ? NOMES[codigo] : "?";
+    }
+
+    // instruções que podem aparecer no .obj (nem INVALIDA nem superinstrução interna)
+    public static boolean ehTextual(int codigo) {
+        return (codigo >= START && codigo <= NULL) || (codigo >= STRK && codigo <= STL);
+    }
+
+    // maior código (tamanho das tabelas indexadas por opcode)
+    public static int ultimo() {
+        return NOMES.length - 1;
+    }
+
+    public static boolean ehFundida(int codigo) {
+        return codigo >= F_LDV_LDC_CMP_JMPF && codigo <= F_LDV_LDV_OP;
+    }
+
+    // operações binárias (pop y, pop x, push x op y)
+    public static boolean ehBinaria(int codigo) {
+        return (codigo >= ADD && codigo <= DIVI) || (codigo >= AND && codigo <= CMAQ);
+    }
+
+    public static boolean ehComparacao(int codigo) {
+        return codigo >= CME && codigo <= CMAQ;
+    }
+
+    // resultado de uma operação binária, com a mesma semântica do binOp do interpretador
+    public static int aplica(int codigo, int x, int y) {
+        switch (codigo) {
+            case ADD: return x + y;
+            case SUB: return x - y;
+            case MULT: return x * y;
+            case DIVI: return y == 0 ? 0 : x / y;
+            case AND: return (x == 1 && y == 1) ? 1 : 0;
+            case OR: return (x == 1 || y == 1) ? 1 : 0;
+            case CME: return x < y ? 1 : 0;
+            case CMA: return x > y ? 1 : 0;
+            case CEQ: return x == y ? 1 : 0;
+            case CDIF: return x != y ? 1 : 0;
+            case CMEQ: return x <= y ? 1 : 0;
+            case CMAQ: return x >= y ? 1 : 0;
+            default: throw new IllegalArgumentException("Não é operação binária: " + nome(codigo));
+        }
+    }
+
+    // instruções cujo operando A é um rótulo
+    public static boolean ehSalto(int codigo) {
+        return codigo == JMP || codigo == JMPF || codigo == CALL;
+    }
+}
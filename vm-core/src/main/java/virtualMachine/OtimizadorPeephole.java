@@ -0,0 +1,278 @@
+package virtualMachine;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// otimizador peephole sobre a listagem do .obj (List<LinhaVM>), sem precisar recompilar o fonte:
+//   - STR x; LDV x           -> STRK x (o valor continua no topo)
+//   - salto para rótulo cuja instrução é outro JMP -> salta direto para o destino final
+//   - JMP para a instrução seguinte é removido
+//   - código inalcançável (depois de JMP/RETURN/HLT e sem rótulo usado) é removido
+//   - linhas NULL e rótulos não usados somem; rótulos no mesmo ponto viram um só
+// O resultado escreve a mesma saída com menos passos. A memória final pode diferir: com
+// instruções removidas, os endereços de retorno empilhados por CALL mudam, e como a pilha
+// divide as células com as variáveis, um programa pode até ler esses valores.
+public final class OtimizadorPeephole {
+
+    // instrução com os rótulos que apontam para ela
+    private static final class Item {
+        final List<String> rotulos = new ArrayList<>();
+        String instr;
+        String var1;
+        String var2;
+
+        Item(String instr, String var1, String var2) {
+            this.instr = instr;
+            this.var1 = var1;
+            this.var2 = var2;
+        }
+    }
+
+    private int threads;
+    private int forwards;
+    private int removidas;
+
+    public List<LinhaVM> otimiza(List<LinhaVM> linhas) {
+        List<Item> itens = new ArrayList<>();
+        List<String> pendentes = new ArrayList<>();
+        for (LinhaVM l : linhas) {
+            String rot = texto(l.getRotulo());
+            String instr = texto(l.getInstrucao()).toUpperCase();
+            if (!rot.isEmpty()) pendentes.add(rot);
+            // linha só com rótulo, ou NULL explícito: o rótulo passa para a próxima instrução
+            if (instr.isEmpty() || instr.equals("NULL")) continue;
+            Item it = new Item(instr, texto(l.getVar1()), texto(l.getVar2()));
+            it.rotulos.addAll(pendentes);
+            pendentes.clear();
+            itens.add(it);
+        }
+        // rótulos no fim do arquivo apontam para "depois da última instrução"
+        List<String> finais = new ArrayList<>(pendentes);
+
+        boolean mudou = true;
+        while (mudou) {
+            mudou = encadeiaSaltos(itens, finais);
+            mudou |= encaminhaStrLdv(itens, finais);
+            mudou |= removeSaltoParaSeguinte(itens, finais);
+            mudou |= removeInalcancavel(itens, finais);
+        }
+
+        return paraLinhas(itens, finais);
+    }
+
+    // JMP/JMPF/CALL L, com L: JMP M  ->  salta para M
+    private boolean encadeiaSaltos(List<Item> itens, List<String> finais) {
+        Map<String, Integer> rotulos = indice(itens, finais);
+        boolean mudou = false;
+        for (int j = 0; j < itens.size(); j++) {
+            Item it = itens.get(j);
+            if (!ehSalto(it.instr)) continue;
+            String destino = it.var1;
+            Set<Integer> visitados = new LinkedHashSet<>();
+            while (true) {
+                Integer d = rotulos.get(destino);
+                if (d == null || d >= itens.size() || !visitados.add(d)) break;
+                Item alvo = itens.get(d);
+                if (!alvo.instr.equals("JMP")) break;
+                Integer prox = rotulos.get(alvo.var1);
+                // JMP para si mesmo só avança uma instrução na VM: não segue
+                if (prox == null || prox.equals(d)) break;
+                destino = alvo.var1;
+            }
+            // salto que cairia no próprio índice mudaria de sentido (a VM avança): mantém
+            if (!destino.equals(it.var1) && !Integer.valueOf(j).equals(rotulos.get(destino))) {
+                it.var1 = destino;
+                threads++;
+                mudou = true;
+            }
+        }
+        return mudou;
+    }
+
+    // STR x; LDV x -> STRK x (se ninguém salta para o LDV)
+    private boolean encaminhaStrLdv(List<Item> itens, List<String> finais) {
+        Set<String> usados = usados(itens);
+        boolean mudou = false;
+        for (int j = 0; j + 1 < itens.size(); j++) {
+            Item str = itens.get(j);
+            Item ldv = itens.get(j + 1);
+            if (!str.instr.equals("STR") || !ldv.instr.equals("LDV")) continue;
+            if (Decodificador.paramVal(str.var1) != Decodificador.paramVal(ldv.var1)) continue;
+            if (temRotuloUsado(ldv, usados)) continue;
+            str.instr = "STRK";
+            str.var2 = "";
+            moveRotulos(itens, finais, j + 1);
+            itens.remove(j + 1);
+            forwards++;
+            mudou = true;
+        }
+        return mudou;
+    }
+
+    private boolean removeSaltoParaSeguinte(List<Item> itens, List<String> finais) {
+        Map<String, Integer> rotulos = indice(itens, finais);
+        boolean mudou = false;
+        for (int j = 0; j < itens.size(); j++) {
+            Item it = itens.get(j);
+            if (!it.instr.equals("JMP")) continue;
+            Integer d = rotulos.get(it.var1);
+            if (d == null || d != j + 1) continue;
+            moveRotulos(itens, finais, j);
+            itens.remove(j);
+            removidas++;
+            rotulos = indice(itens, finais);
+            j--;
+            mudou = true;
+        }
+        return mudou;
+    }
+
+    // alcançabilidade a partir da primeira instrução (CALL também segue para a instrução
+    // seguinte, que é para onde o RETURN volta)
+    private boolean removeInalcancavel(List<Item> itens, List<String> finais) {
+        Map<String, Integer> rotulos = indice(itens, finais);
+        int n = itens.size();
+        boolean[] alcancavel = new boolean[n];
+        Deque<Integer> pendentes = new ArrayDeque<>();
+        if (n > 0) pendentes.push(0);
+        while (!pendentes.isEmpty()) {
+            int j = pendentes.pop();
+            if (j < 0 || j >= n || alcancavel[j]) continue;
+            alcancavel[j] = true;
+            Item it = itens.get(j);
+            if (ehSalto(it.instr)) {
+                Integer d = rotulos.get(it.var1);
+                if (d != null) pendentes.push(d.equals(j) ? j + 1 : d);
+            }
+            if (!it.instr.equals("JMP") && !it.instr.equals("RETURN") && !it.instr.equals("HLT")) {
+                pendentes.push(j + 1);
+            }
+        }
+
+        boolean mudou = false;
+        for (int j = n - 1; j >= 0; j--) {
+            if (alcancavel[j]) continue;
+            moveRotulos(itens, finais, j);
+            itens.remove(j);
+            removidas++;
+            mudou = true;
+        }
+        return mudou;
+    }
+
+    // os rótulos da instrução removida passam a apontar para a seguinte
+    private static void moveRotulos(List<Item> itens, List<String> finais, int j) {
+        List<String> rotulos = itens.get(j).rotulos;
+        if (rotulos.isEmpty()) return;
+        if (j + 1 < itens.size()) itens.get(j + 1).rotulos.addAll(0, rotulos);
+        else finais.addAll(0, rotulos);
+    }
+
+    private static List<LinhaVM> paraLinhas(List<Item> itens, List<String> finais) {
+        Set<String> usados = usados(itens);
+        // vários rótulos usados no mesmo ponto: fica o primeiro, os saltos são renomeados
+        Map<String, String> renomeia = new HashMap<>();
+        List<String> canonicos = new ArrayList<>();
+        for (int j = 0; j <= itens.size(); j++) {
+            List<String> rotulos = j < itens.size() ? itens.get(j).rotulos : finais;
+            String canonico = null;
+            for (String r : rotulos) {
+                if (!usados.contains(r)) continue;
+                if (canonico == null) canonico = r;
+                renomeia.put(r, canonico);
+            }
+            canonicos.add(canonico);
+        }
+
+        List<LinhaVM> saida = new ArrayList<>();
+        int numeroLinha = 1;
+        for (int j = 0; j <= itens.size(); j++) {
+            if (canonicos.get(j) != null) {
+                saida.add(new LinhaVM(numeroLinha++, canonicos.get(j), "", "", "", ""));
+            }
+            if (j == itens.size()) break;
+            Item it = itens.get(j);
+            String var1 = ehSalto(it.instr) ? renomeia.getOrDefault(it.var1, it.var1) : it.var1;
+            saida.add(new LinhaVM(numeroLinha++, "", it.instr, var1, it.var2, ""));
+        }
+        return saida;
+    }
+
+    private static Map<String, Integer> indice(List<Item> itens, List<String> finais) {
+        Map<String, Integer> rotulos = new HashMap<>();
+        for (int j = 0; j < itens.size(); j++) {
+            for (String r : itens.get(j).rotulos) rotulos.put(r, j);
+        }
+        for (String r : finais) rotulos.put(r, itens.size());
+        return rotulos;
+    }
+
+    private static Set<String> usados(List<Item> itens) {
+        Set<String> usados = new LinkedHashSet<>();
+        for (Item it : itens) {
+            if (ehSalto(it.instr)) usados.add(it.var1);
+        }
+        return usados;
+    }
+
+    private static boolean temRotuloUsado(Item it, Set<String> usados) {
+        for (String r : it.rotulos) {
+            if (usados.contains(r)) return true;
+        }
+        return false;
+    }
+
+    private static boolean ehSalto(String instr) {
+        return instr.equals("JMP") || instr.equals("JMPF") || instr.equals("CALL");
+    }
+
+    private static String texto(String s) {
+        return s == null ? "" : s.trim();
+    }
+
+    // grava no layout com tabulação (rótulo<TAB>instrução operandos), aceito por listaLinhas
+    public static void grava(List<LinhaVM> linhas, Path destino) throws IOException {
+        try (PrintWriter w = new PrintWriter(Files.newBufferedWriter(destino, StandardCharsets.UTF_8))) {
+            for (LinhaVM l : linhas) {
+                if (texto(l.getInstrucao()).isEmpty()) {
+                    w.println(l.getRotulo() + "\tNULL");
+                    continue;
+                }
+                StringBuilder sb = new StringBuilder();
+                sb.append(texto(l.getRotulo())).append('\t').append(l.getInstrucao());
+                if (!texto(l.getVar1()).isEmpty()) sb.append(' ').append(l.getVar1());
+                if (!texto(l.getVar2()).isEmpty()) sb.append(' ').append(l.getVar2());
+                w.println(sb);
+            }
+        }
+    }
+
+    public String resumo() {
+        return "Peephole: " + threads + " saltos encadeados, " + forwards + " STR/LDV encaminhados, "
+                + removidas + " instruções removidas";
+    }
+
+    // java virtualMachine.OtimizadorPeephole entrada.obj saida.obj
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Uso: java virtualMachine.OtimizadorPeephole <entrada.obj> <saida.obj>");
+            return;
+        }
+        OtimizadorPeephole otimizador = new OtimizadorPeephole();
+        List<LinhaVM> linhas = otimizador.otimiza(new VirtualMachine(args[0]).listaLinhas());
+        grava(linhas, Path.of(args[1]));
+        System.out.println(otimizador.resumo());
+        System.out.println("Arquivo '" + args[1] + "' gerado.");
+    }
+}
@@ -0,0 +1,177 @@
+package virtualMachine;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// perfil de uma execução: quantas vezes cada instrução foi despachada (e daí por opcode e
+// por rótulo), arestas de CALL entre procedimentos e a profundidade máxima da pilha.
+// É opcional: sem perfilador no contexto o Interpretador só paga um teste de null por passo.
+// Com perfilador a execução usa sempre o laço com switch (sem JIT nem nós encadeados),
+// senão as instruções não passariam por aqui.
+public final class Perfilador {
+
+    private static final String PRINCIPAL = "principal";
+
+    private Programa programa;
+    // despachos por índice de instrução (superinstruções contam no índice do LDV inicial)
+    private long[] porInstrucao = new long[0];
+    private int maxS = -1;
+
+    // pilha dos procedimentos ativos (índice de entrada; -1 = programa principal)
+    private int[] procedimentos = new int[16];
+    private int topo = -1;
+    // (origem << 32 | destino) -> quantidade, na ordem em que as arestas aparecem
+    private final Map<Long, long[]> chamadas = new LinkedHashMap<>();
+
+    // associa ao programa executado; um programa diferente zera o perfil
+    void prepara(Programa p) {
+        if (programa == p) return;
+        programa = p;
+        porInstrucao = new long[p.op.length];
+        maxS = -1;
+        topo = -1;
+        chamadas.clear();
+    }
+
+    // um despacho no índice i, com o topo da pilha em s (antes de executar)
+    void conta(int i, int s) {
+        porInstrucao[i]++;
+        if (s > maxS) maxS = s;
+    }
+
+    // CALL para o procedimento que começa em 'destino'
+    void chamada(int destino) {
+        int origem = topo < 0 ? -1 : procedimentos[topo];
+        long chave = ((long) origem << 32) | (destino & 0xFFFFFFFFL);
+        long[] n = chamadas.get(chave);
+        if (n == null) chamadas.put(chave, n = new long[1]);
+        n[0]++;
+        if (++topo == procedimentos.length) procedimentos = Arrays.copyOf(procedimentos, topo * 2);
+        procedimentos[topo] = destino;
+    }
+
+    void retorno() {
+        if (topo >= 0) topo--;
+    }
+
+    // ---------- consulta ----------
+
+    public long getExecucoes(int indice) { return porInstrucao[indice]; }
+
+    public long getTotal() {
+        long t = 0;
+        for (long n : porInstrucao) t += n;
+        return t;
+    }
+
+    public long getExecucoesOpcode(int codigo) {
+        long t = 0;
+        for (int i = 0; i < porInstrucao.length; i++) {
+            if (programa.op[i] == codigo) t += porInstrucao[i];
+        }
+        return t;
+    }
+
+    // quantas vezes a execução passou pelo rótulo (despachos da instrução apontada)
+    public long getExecucoesRotulo(String rotulo) {
+        int i = programa == null ? -1 : programa.endereco(rotulo);
+        return (i >= 0 && i < porInstrucao.length) ? porInstrucao[i] : 0;
+    }
+
+    // despachos do rótulo até o próximo rótulo (o trecho que ele abre)
+    public long getPassosRotulo(String rotulo) {
+        int i = programa == null ? -1 : programa.endereco(rotulo);
+        if (i < 0) return 0;
+        int fim = porInstrucao.length;
+        for (int e : programa.enderecosRotulos) {
+            if (e > i && e < fim) fim = e;
+        }
+        long t = 0;
+        for (int k = i; k < fim; k++) t += porInstrucao[k];
+        return t;
+    }
+
+    // profundidade máxima da pilha (s + 1; inclui as posições copiadas por ALLOC)
+    public int getPilhaMaxima() { return maxS + 1; }
+
+    // "origem -> destino" -> quantidade de CALLs; o programa principal aparece como "principal"
+    public Map<String, Long> getChamadas() {
+        Map<String, Long> r = new LinkedHashMap<>();
+        for (Map.Entry<Long, long[]> e : chamadas.entrySet()) {
+            int origem = (int) (e.getKey() >> 32);
+            int destino = (int) (long) e.getKey();
+            r.put(procedimento(origem) + " -> " + procedimento(destino), e.getValue()[0]);
+        }
+        return r;
+    }
+
+    private String procedimento(int entrada) {
+        if (entrada < 0) return PRINCIPAL;
+        return rotuloEm(entrada, "#" + entrada);
+    }
+
+    private String rotuloEm(int indice, String padrao) {
+        for (int k = 0; k < programa.nomesRotulos.length; k++) {
+            if (programa.enderecosRotulos[k] == indice) return programa.nomesRotulos[k];
+        }
+        return padrao;
+    }
+
+    // relatório de texto com as 'maximo' instruções mais executadas
+    public void relatorio(PrintStream out, int maximo) {
+        long total = getTotal();
+        out.println("Perfil: " + total + " despachos, pilha máxima " + getPilhaMaxima());
+        if (programa == null || total == 0) return;
+
+        out.println("Por opcode:");
+        long[] porOpcode = new long[Opcodes.ultimo() + 1];
+        for (int i = 0; i < porInstrucao.length; i++) porOpcode[programa.op[i]] += porInstrucao[i];
+        Integer[] ops = ordenados(porOpcode);
+        for (int op : ops) {
+            if (porOpcode[op] == 0) break;
+            out.println(String.format(Locale.ROOT, "  %-20s %12d  %5.1f%%",
+                    Opcodes.nome(op), porOpcode[op], 100.0 * porOpcode[op] / total));
+        }
+
+        out.println("Instruções mais executadas:");
+        Integer[] indices = ordenados(porInstrucao);
+        for (int k = 0; k < indices.length && k < maximo; k++) {
+            int i = indices[k];
+            if (porInstrucao[i] == 0) break;
+            out.println(String.format(Locale.ROOT, "  #%-6d %-20s %12d  %s",
+                    i, Opcodes.nome(programa.op[i]) + " " + programa.a[i], porInstrucao[i], rotuloEm(i, "")));
+        }
+
+        if (programa.nomesRotulos.length > 0) {
+            out.println("Rótulos (entradas / passos no trecho):");
+            Map<String, Long> passos = new LinkedHashMap<>();
+            for (String r : programa.nomesRotulos) passos.put(r, getPassosRotulo(r));
+            List<String> rotulos = new ArrayList<>(passos.keySet());
+            rotulos.sort((x, y) -> Long.compare(passos.get(y), passos.get(x)));
+            for (String r : rotulos) {
+                if (passos.get(r) == 0) continue;
+                out.println(String.format(Locale.ROOT, "  %-10s %12d %12d", r, getExecucoesRotulo(r), passos.get(r)));
+            }
+        }
+
+        if (!chamadas.isEmpty()) {
+            out.println("Chamadas:");
+            for (Map.Entry<String, Long> e : getChamadas().entrySet()) {
+                out.println(String.format(Locale.ROOT, "  %-24s %12d", e.getKey(), e.getValue()));
+            }
+        }
+    }
+
+    // índices em ordem decrescente de contagem
+    private static Integer[] ordenados(long[] contagens) {
+        Integer[] r = new Integer[contagens.length];
+        for (int k = 0; k < r.length; k++) r[k] = k;
+        Arrays.sort(r, (x, y) -> Long.compare(contagens[y], contagens[x]));
+        return r;
+    }
+}
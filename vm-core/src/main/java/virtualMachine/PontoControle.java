@@ -0,0 +1,229 @@
+package virtualMachine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+// pontos de controle de uma execução num arquivo de log (.mvdc), para parar um programa
+// longo e continuar depois (em outro processo) exatamente de onde parou.
+//
+//   cabeçalho (32 bytes, little-endian):
+//     int magico "MVDC" | int versao | long hash do programa | int nInstrucoes
+//     int tamanhoPagina | long reservado
+//   registros, um por grava():
+//     int marcador | int tamanho do conteúdo
+//     conteúdo: long passos | long despachos | int pc | int s | int tamanhoMemoria | int flags
+//               long linhasSaida | long lidas | int nPaginas
+//               nPaginas x (int pagina | int quantidade | int valores[quantidade])
+//     int crc32 do conteúdo
+//
+// O primeiro registro tem todas as páginas tocadas; os seguintes só as páginas escritas desde o
+// anterior (MemoriaVM marca as páginas sujas depois do primeiro grava). Restaurar é aplicar os
+// registros em ordem. Um registro incompleto no fim (processo morto no meio da gravação) é
+// descartado pelo CRC e o arquivo é cortado ali. Se o último registro é de uma execução que
+// já terminou, não há o que retomar: abre() descarta os registros e a próxima começa do zero.
+//
+// grava() deve ser chamado entre fatias (Interpretador.executa com maxPassos), nunca durante.
+public final class PontoControle implements AutoCloseable {
+
+    public static final int MAGICO = 0x4344564D; // "MVDC" lido em little-endian
+    public static final int VERSAO = 1;
+    public static final String EXTENSAO = ".mvdc";
+
+    private static final int CABECALHO = 32;
+    private static final int MARCADOR = 0x5450434B;
+    private static final int TAMANHO_PAGINA = 1 << MemoriaVM.BITS_PAGINA;
+    private static final int FIXO = 8 + 8 + 4 + 4 + 4 + 4 + 8 + 8 + 4;
+
+    private static final int TERMINADO = 1;
+    private static final int LIMITE_EXCEDIDO = 2;
+
+    private final FileChannel canal;
+    // fim do último registro válido (onde o próximo é gravado)
+    private long fim;
+    private int registros;
+    // o último registro íntegro é de uma execução terminada
+    private boolean terminado;
+    private ByteBuffer buf = ByteBuffer.allocate(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+
+    private PontoControle(FileChannel canal, long fim, int registros) {
+        this.canal = canal;
+        this.fim = fim;
+        this.registros = registros;
+    }
+
+    // abre (ou cria) o arquivo de um programa. Se já tiver registros, temEstado() é true e
+    // restaura() continua a execução; arquivo de outro programa é rejeitado.
+    public static PontoControle abre(Path arquivo, Programa programa) throws IOException {
+        FileChannel ch = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            if (ch.size() == 0) {
+                ByteBuffer cab = ByteBuffer.allocate(CABECALHO).order(ByteOrder.LITTLE_ENDIAN);
+                cab.putInt(MAGICO).putInt(VERSAO).putLong(programa.hash()).putInt(programa.tamanho())
+                        .putInt(TAMANHO_PAGINA).putLong(0).flip();
+                while (cab.hasRemaining()) ch.write(cab, cab.position());
+                return new PontoControle(ch, CABECALHO, 0);
+            }
+            ByteBuffer cab = le(ch, 0, CABECALHO);
+            if (cab == null || cab.getInt(0) != MAGICO) {
+                throw new RuntimeException("Arquivo de ponto de controle inválido: " + arquivo);
+            }
+            if (cab.getInt(4) != VERSAO || cab.getInt(20) != TAMANHO_PAGINA) {
+                throw new RuntimeException("Versão de ponto de controle não suportada: " + cab.getInt(4));
+            }
+            if (cab.getLong(8) != programa.hash() || cab.getInt(16) != programa.tamanho()) {
+                throw new RuntimeException("Ponto de controle é de outro programa: " + arquivo);
+            }
+            PontoControle pc = new PontoControle(ch, CABECALHO, 0);
+            pc.varre();
+            if (pc.terminado) pc.descarta();
+            else ch.truncate(pc.fim);
+            return pc;
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    // acha o fim do último registro íntegro
+    private void varre() throws IOException {
+        long pos = CABECALHO;
+        while (true) {
+            ByteBuffer conteudo = registro(pos);
+            if (conteudo == null) break;
+            pos += 8 + conteudo.capacity() + 4;
+            registros++;
+            terminado = (conteudo.getInt(28) & TERMINADO) != 0;
+        }
+        fim = pos;
+    }
+
+    // conteúdo do registro em 'pos', ou null se não houver um registro íntegro ali
+    private ByteBuffer registro(long pos) throws IOException {
+        ByteBuffer cab = le(canal, pos, 8);
+        if (cab == null || cab.getInt(0) != MARCADOR) return null;
+        int tamanho = cab.getInt(4);
+        if (tamanho < FIXO || pos + 8 + tamanho + 4 > canal.size()) return null;
+        ByteBuffer conteudo = le(canal, pos + 8, tamanho);
+        ByteBuffer crc = le(canal, pos + 8 + tamanho, 4);
+        if (conteudo == null || crc == null || crc.getInt(0) != crc32(conteudo)) return null;
+        return conteudo;
+    }
+
+    private static ByteBuffer le(FileChannel ch, long pos, int n) throws IOException {
+        ByteBuffer b = ByteBuffer.allocate(n).order(ByteOrder.LITTLE_ENDIAN);
+        while (b.hasRemaining()) {
+            if (ch.read(b, pos + b.position()) < 0) return null;
+        }
+        return b.flip();
+    }
+
+    private static int crc32(ByteBuffer b) {
+        CRC32 crc = new CRC32();
+        crc.update(b.duplicate().rewind());
+        return (int) crc.getValue();
+    }
+
+    public boolean temEstado() { return registros > 0; }
+    public int getRegistros() { return registros; }
+
+    // recria o contexto do último registro. Com reposicionaEntrada, descarta da entrada os
+    // valores que já tinham sido lidos (a mesma entrada fornecida de novo desde o início);
+    // sem ele, a entrada já deve estar no ponto certo. A saída anterior não é reescrita: o
+    // contexto só continua a contagem de linhas (getLinhasSaida).
+    public ContextoExecucao restaura(EntradaVM entrada, SaidaVM console, int limiteMemoria,
+                                     boolean reposicionaEntrada) throws IOException {
+        if (!temEstado()) throw new RuntimeException("Ponto de controle sem registros");
+        ContextoExecucao c = new ContextoExecucao(entrada, console, limiteMemoria);
+        MemoriaVM m = c.getMemoria();
+        long pos = CABECALHO;
+        for (int r = 0; r < registros; r++) {
+            ByteBuffer b = registro(pos);
+            pos += 8 + b.capacity() + 4;
+            c.passos = b.getLong();
+            c.despachos = b.getLong();
+            c.pc = b.getInt();
+            int s = b.getInt();
+            int tamanho = b.getInt();
+            int flags = b.getInt();
+            c.linhasSaida = b.getLong();
+            c.lidas = b.getLong();
+            int paginas = b.getInt();
+            if (tamanho > 0) m.garante(tamanho - 1);
+            for (int k = 0; k < paginas; k++) {
+                int base = b.getInt() << MemoriaVM.BITS_PAGINA;
+                int quantidade = b.getInt();
+                for (int j = 0; j < quantidade; j++) m.escreve(base + j, b.getInt());
+            }
+            m.setS(s);
+            c.terminado = (flags & TERMINADO) != 0;
+            c.limiteExcedido = (flags & LIMITE_EXCEDIDO) != 0;
+        }
+        if (reposicionaEntrada) {
+            for (long k = 0; k < c.lidas; k++) {
+                if (entrada.le().isEmpty()) throw new RuntimeException("Entrada acabou antes do ponto de controle");
+            }
+        }
+        m.rastreiaEscritas(); // o arquivo já tem tudo; daqui em diante só as páginas sujas
+        return c;
+    }
+
+    // acrescenta um registro com o estado atual do contexto
+    public void grava(ContextoExecucao c) throws IOException {
+        MemoriaVM m = c.getMemoria();
+        int tamanho = m.tamanho();
+        int[] dados = m.dados();
+        boolean completo = !m.rastreandoEscritas();
+        int ultima = tamanho == 0 ? -1 : (tamanho - 1) >>> MemoriaVM.BITS_PAGINA;
+
+        int paginas = 0;
+        for (int p = 0; p <= ultima; p++) {
+            if (completo || m.suja(p)) paginas++;
+        }
+        reserva(8 + FIXO + paginas * (8 + 4 * TAMANHO_PAGINA) + 4);
+        buf.clear();
+        buf.putInt(MARCADOR).putInt(0);
+        buf.putLong(c.passos).putLong(c.despachos).putInt(c.pc).putInt(m.getS()).putInt(tamanho)
+                .putInt((c.terminado ? TERMINADO : 0) | (c.limiteExcedido ? LIMITE_EXCEDIDO : 0))
+                .putLong(c.linhasSaida).putLong(c.lidas).putInt(paginas);
+        for (int p = 0; p <= ultima; p++) {
+            if (!completo && !m.suja(p)) continue;
+            int base = p << MemoriaVM.BITS_PAGINA;
+            int quantidade = Math.min(TAMANHO_PAGINA, tamanho - base);
+            buf.putInt(p).putInt(quantidade);
+            buf.asIntBuffer().put(dados, base, quantidade);
+            buf.position(buf.position() + 4 * quantidade);
+        }
+        int tamanhoConteudo = buf.position() - 8;
+        buf.putInt(4, tamanhoConteudo);
+        buf.putInt(crc32(buf.slice(8, tamanhoConteudo)));
+        buf.flip();
+        while (buf.hasRemaining()) fim += canal.write(buf, fim);
+        registros++;
+
+        if (completo) m.rastreiaEscritas();
+        else m.limpaSujas();
+    }
+
+    // apaga os registros (só fica o cabeçalho); usado quando a execução termina
+    public void descarta() throws IOException {
+        canal.truncate(CABECALHO);
+        fim = CABECALHO;
+        registros = 0;
+        terminado = false;
+    }
+
+    private void reserva(int n) {
+        if (buf.capacity() < n) buf = ByteBuffer.allocate(Math.max(n, buf.capacity() * 2)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+}
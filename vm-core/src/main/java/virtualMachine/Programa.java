@@ -0,0 +1,80 @@
+package virtualMachine;
+
+// programa já decodificado: vetores paralelos de opcode e operandos (sem linhas "NULL")
+public final class Programa {
+
+    final int[] op;
+    final int[] a;
+    final int[] b;
+
+    // nomes referenciados pelo operando A antes da ligação (rótulos) e nomes de instruções inválidas
+    final String[] simbolos;
+
+    // tabela de rótulos (depuração): nome -> índice da instrução
+    final String[] nomesRotulos;
+    final int[] enderecosRotulos;
+
+    // depois de ligado, o operando A de JMP/JMPF/CALL já é o índice de destino
+    final boolean ligado;
+
+    // resultado do Verificador (null = não verificado); habilita a ExecucaoVerificada
+    final Verificacao verificacao;
+
+    Programa(int[] op, int[] a, int[] b, String[] simbolos,
+             String[] nomesRotulos, int[] enderecosRotulos, boolean ligado) {
+        this(op, a, b, simbolos, nomesRotulos, enderecosRotulos, ligado, null);
+    }
+
+    Programa(int[] op, int[] a, int[] b, String[] simbolos,
+             String[] nomesRotulos, int[] enderecosRotulos, boolean ligado, Verificacao verificacao) {
+        this.op = op;
+        this.a = a;
+        this.b = b;
+        this.simbolos = simbolos;
+        this.nomesRotulos = nomesRotulos;
+        this.enderecosRotulos = enderecosRotulos;
+        this.ligado = ligado;
+        this.verificacao = verificacao;
+    }
+
+    public int tamanho() { return op.length; }
+
+    public int getOp(int i) { return op[i]; }
+    public int getA(int i) { return a[i]; }
+    public int getB(int i) { return b[i]; }
+
+    public boolean isLigado() { return ligado; }
+    public Verificacao getVerificacao() { return verificacao; }
+
+    // identidade do programa (FNV-1a de 64 bits sobre as instruções); não muda entre processos
+    public long hash() {
+        long h = 0xcbf29ce484222325L;
+        h = mistura(h, op.length);
+        for (int i = 0; i < op.length; i++) {
+            h = mistura(h, op[i]);
+            h = mistura(h, a[i]);
+            h = mistura(h, b[i]);
+        }
+        return h;
+    }
+
+    private static long mistura(long h, int v) {
+        for (int k = 0; k < 4; k++) {
+            h ^= (v >>> (8 * k)) & 0xFF;
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    public int getQuantidadeRotulos() { return nomesRotulos.length; }
+    public String getNomeRotulo(int k) { return nomesRotulos[k]; }
+    public int getEnderecoRotulo(int k) { return enderecosRotulos[k]; }
+
+    // índice da instrução apontada pelo rótulo, ou -1
+    public int endereco(String rotulo) {
+        for (int k = 0; k < nomesRotulos.length; k++) {
+            if (nomesRotulos[k].equals(rotulo)) return enderecosRotulos[k];
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,185 @@
+package virtualMachine;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// rastro binário de execução: buffer circular com os últimos passos, em memória ou num
+// arquivo mapeado (.mvdt). Cada registro tem tamanho fixo, então gravar um passo é só
+// escrever alguns inteiros numa posição calculada, sem formatação nem alocação.
+//
+//   cabeçalho (32 bytes, little-endian):
+//     int magico "MVDT" | int versao | int capacidade | int tamanhoRegistro
+//     long total (passos gravados desde o início) | long reservado
+//   registros (24 bytes): long passo | int pc | int op | int topo | int s
+//
+// O estado é o de antes de executar a instrução; topo vale 0 com a pilha vazia (s = -1).
+// Quando o rastro está no contexto, o Interpretador usa sempre o laço com switch.
+public final class Rastro implements AutoCloseable {
+
+    public static final int MAGICO = 0x5444564D; // "MVDT" lido em little-endian
+    public static final int VERSAO = 1;
+    public static final String EXTENSAO = ".mvdt";
+
+    private static final int CABECALHO = 32;
+    private static final int REGISTRO = 24;
+    private static final int POS_TOTAL = 16;
+
+    private final ByteBuffer buf;
+    private final FileChannel canal;
+    private final int capacidade;
+    private final int mascara;
+    private long total;
+
+    private Rastro(ByteBuffer buf, FileChannel canal, int capacidade, long total) {
+        this.buf = buf.order(ByteOrder.LITTLE_ENDIAN);
+        this.canal = canal;
+        this.capacidade = capacidade;
+        this.mascara = capacidade - 1;
+        this.total = total;
+    }
+
+    // capacidade é arredondada para potência de 2 (índice no buffer com máscara)
+    public static Rastro memoria(int capacidade) {
+        int cap = arredonda(capacidade);
+        ByteBuffer b = ByteBuffer.allocateDirect(CABECALHO + cap * REGISTRO);
+        return inicia(b, null, cap);
+    }
+
+    // o arquivo fica sempre consistente: dá para decodificar mesmo se a JVM morrer no meio
+    public static Rastro arquivo(Path arquivo, int capacidade) throws IOException {
+        int cap = arredonda(capacidade);
+        FileChannel ch = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        return inicia(ch.map(FileChannel.MapMode.READ_WRITE, 0, CABECALHO + (long) cap * REGISTRO), ch, cap);
+    }
+
+    // abre um .mvdt gravado para leitura (decodificador)
+    public static Rastro abre(Path arquivo) throws IOException {
+        try (FileChannel ch = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            ByteBuffer b = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()).order(ByteOrder.LITTLE_ENDIAN);
+            if (b.capacity() < CABECALHO || b.getInt(0) != MAGICO) {
+                throw new RuntimeException("Arquivo de rastro inválido: " + arquivo);
+            }
+            if (b.getInt(4) != VERSAO || b.getInt(12) != REGISTRO) {
+                throw new RuntimeException("Versão de rastro não suportada: " + b.getInt(4));
+            }
+            int cap = b.getInt(8);
+            if (ch.size() < CABECALHO + (long) cap * REGISTRO) {
+                throw new RuntimeException("Arquivo de rastro truncado: " + arquivo);
+            }
+            return new Rastro(b, null, cap, b.getLong(POS_TOTAL));
+        }
+    }
+
+    private static Rastro inicia(ByteBuffer b, FileChannel ch, int cap) {
+        b.order(ByteOrder.LITTLE_ENDIAN);
+        b.putInt(0, MAGICO).putInt(4, VERSAO).putInt(8, cap).putInt(12, REGISTRO)
+                .putLong(POS_TOTAL, 0).putLong(24, 0);
+        return new Rastro(b, ch, cap, 0);
+    }
+
+    private static int arredonda(int capacidade) {
+        if (capacidade < 1) throw new IllegalArgumentException("capacidade deve ser positiva");
+        int cap = Integer.highestOneBit(capacidade);
+        if (cap < capacidade) cap <<= 1;
+        if (cap <= 0 || cap > (Integer.MAX_VALUE - CABECALHO) / REGISTRO) {
+            throw new IllegalArgumentException("capacidade grande demais: " + capacidade);
+        }
+        return cap;
+    }
+
+    // chamado pelo Interpretador a cada despacho
+    void registra(long passo, int pc, int op, int topo, int s) {
+        int p = CABECALHO + (int) (total & mascara) * REGISTRO;
+        buf.putLong(p, passo);
+        buf.putInt(p + 8, pc);
+        buf.putInt(p + 12, op);
+        buf.putInt(p + 16, topo);
+        buf.putInt(p + 20, s);
+        buf.putLong(POS_TOTAL, ++total);
+    }
+
+    public int getCapacidade() { return capacidade; }
+    // passos gravados desde o início (os mais antigos já podem ter sido sobrescritos)
+    public long getTotal() { return total; }
+    // registros ainda disponíveis no buffer
+    public int getQuantidade() { return (int) Math.min(total, capacidade); }
+
+    // k-ésimo registro disponível, do mais antigo (0) para o mais recente
+    private int posicao(int k) {
+        long primeiro = total - getQuantidade();
+        return CABECALHO + (int) ((primeiro + k) & mascara) * REGISTRO;
+    }
+
+    public long getPasso(int k) { return buf.getLong(posicao(k)); }
+    public int getPc(int k) { return buf.getInt(posicao(k) + 8); }
+    public int getOp(int k) { return buf.getInt(posicao(k) + 12); }
+    public int getTopo(int k) { return buf.getInt(posicao(k) + 16); }
+    public int getS(int k) { return buf.getInt(posicao(k) + 20); }
+
+    // grava uma cópia do buffer atual como .mvdt (rastro em memória, ex.: depois de um erro)
+    public void salva(Path arquivo) throws IOException {
+        ByteBuffer copia = buf.duplicate();
+        copia.clear();
+        try (FileChannel ch = FileChannel.open(arquivo, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (copia.hasRemaining()) ch.write(copia);
+        }
+    }
+
+    // os 'ultimos' registros com pc entre pcMin e pcMax (inclusive), do mais antigo ao mais recente
+    public void imprime(PrintStream out, int ultimos, int pcMin, int pcMax) {
+        int n = getQuantidade();
+        int[] escolhidos = new int[Math.max(0, Math.min(ultimos, n))];
+        int achados = 0;
+        for (int k = n - 1; k >= 0 && achados < escolhidos.length; k--) {
+            int pc = getPc(k);
+            if (pc >= pcMin && pc <= pcMax) escolhidos[achados++] = k;
+        }
+        for (int j = achados - 1; j >= 0; j--) {
+            int k = escolhidos[j];
+            out.println("passo=" + getPasso(k) + " pc=" + getPc(k) + " op=" + Opcodes.nome(getOp(k))
+                    + " topo=" + getTopo(k) + " s=" + getS(k));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (canal != null) canal.close();
+    }
+
+    // decodificador: java virtualMachine.Rastro arquivo.mvdt [--ultimos N] [--pc inicio-fim]
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Uso: java virtualMachine.Rastro <arquivo" + EXTENSAO + "> [--ultimos N] [--pc inicio-fim]");
+            return;
+        }
+        int ultimos = 50;
+        int pcMin = 0;
+        int pcMax = Integer.MAX_VALUE;
+        for (int k = 1; k < args.length; k++) {
+            switch (args[k]) {
+                case "--ultimos":
+                    ultimos = Integer.parseInt(args[++k]);
+                    break;
+                case "--pc": {
+                    String[] faixa = args[++k].split("-", 2);
+                    pcMin = Integer.parseInt(faixa[0]);
+                    pcMax = faixa.length > 1 ? Integer.parseInt(faixa[1]) : pcMin;
+                    break;
+                }
+                default:
+                    throw new RuntimeException("Opção desconhecida: " + args[k]);
+            }
+        }
+        Rastro r = abre(Path.of(args[0]));
+        System.out.println(r.getTotal() + " passos gravados, " + r.getQuantidade() + " no buffer (capacidade "
+                + r.getCapacidade() + ")");
+        r.imprime(System.out, ultimos, pcMin, pcMax);
+    }
+}
@@ -0,0 +1,52 @@
+package virtualMachine;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+// escreve as linhas num Writer acumulando num buffer próprio; o Writer só é chamado
+// (e descarregado) quando o buffer enche ou em descarrega()
+public final class SaidaBufferizada implements SaidaVM {
+
+    private static final int TAMANHO_PADRAO = 8192;
+
+    private final Writer destino;
+    private final StringBuilder buffer;
+    private final int tamanho;
+
+    public SaidaBufferizada(Writer destino) {
+        this(destino, TAMANHO_PADRAO);
+    }
+
+    public SaidaBufferizada(Writer destino, int tamanho) {
+        this.destino = destino;
+        this.tamanho = tamanho;
+        this.buffer = new StringBuilder(tamanho + 64);
+    }
+
+    // console (ou outro PrintStream), na mesma codificação que ele usaria
+    public SaidaBufferizada(PrintStream destino) {
+        this(new OutputStreamWriter(destino, destino.charset()));
+    }
+
+    @Override
+    public void escreve(String linha) {
+        buffer.append(linha).append('\n');
+        if (buffer.length() >= tamanho) descarrega();
+    }
+
+    @Override
+    public void descarrega() {
+        try {
+            if (buffer.length() > 0) {
+                destino.append(buffer);
+                buffer.setLength(0);
+            }
+            destino.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package virtualMachine;
+
+import java.util.function.Consumer;
+
+// repassa a saída para quem chamou (ex.: GUI) em blocos de várias linhas,
+// em vez de uma chamada por PRN
+public final class SaidaCallback implements SaidaVM {
+
+    private static final int LINHAS_POR_LOTE = 256;
+
+    private final Consumer<String> consumidor;
+    private final int linhasPorLote;
+    private final StringBuilder lote = new StringBuilder();
+    private int linhas;
+
+    public SaidaCallback(Consumer<String> consumidor) {
+        this(consumidor, LINHAS_POR_LOTE);
+    }
+
+    public SaidaCallback(Consumer<String> consumidor, int linhasPorLote) {
+        this.consumidor = consumidor;
+        this.linhasPorLote = linhasPorLote;
+    }
+
+    @Override
+    public void escreve(String linha) {
+        lote.append(linha).append('\n');
+        if (++linhas >= linhasPorLote) descarrega();
+    }
+
+    @Override
+    public void descarrega() {
+        if (linhas == 0) return;
+        String bloco = lote.toString();
+        lote.setLength(0);
+        linhas = 0;
+        consumidor.accept(bloco);
+    }
+}
@@ -0,0 +1,42 @@
+package virtualMachine;
+
+// guarda a saída em memória até um limite de caracteres (é o que getSaida() devolve).
+// Passando do limite, as linhas seguintes são só contadas e o texto indica quantas faltaram.
+public final class SaidaMemoria implements SaidaVM {
+
+    public static final int LIMITE_PADRAO = 16 * 1024 * 1024;
+
+    private final StringBuilder texto = new StringBuilder();
+    private final int limite;
+    private long omitidas;
+
+    public SaidaMemoria() {
+        this(LIMITE_PADRAO);
+    }
+
+    public SaidaMemoria(int limite) {
+        this.limite = limite;
+    }
+
+    @Override
+    public void escreve(String linha) {
+        if (omitidas > 0 || texto.length() + linha.length() + 1 > limite) {
+            omitidas++;
+            return;
+        }
+        texto.append(linha).append('\n');
+    }
+
+    public long getOmitidas() { return omitidas; }
+
+    public void limpa() {
+        texto.setLength(0);
+        omitidas = 0;
+    }
+
+    @Override
+    public String toString() {
+        if (omitidas == 0) return texto.toString();
+        return texto + "... (" + omitidas + " linhas omitidas)\n";
+    }
+}
@@ -0,0 +1,12 @@
+package virtualMachine;
+
+// descarta tudo (benchmarks)
+public final class SaidaNula implements SaidaVM {
+
+    public static final SaidaNula INSTANCIA = new SaidaNula();
+
+    private SaidaNula() { }
+
+    @Override
+    public void escreve(String linha) { }
+}
@@ -0,0 +1,26 @@
+package virtualMachine;
+
+// destino das linhas impressas pela VM (PRN e a mensagem do HLT).
+// As implementações podem acumular e só repassar em lotes; descarrega() força o envio
+// do que estiver pendente (a VM chama ao fim da execução e antes de mensagens próprias).
+public interface SaidaVM {
+
+    void escreve(String linha);
+
+    default void descarrega() { }
+
+    // várias saídas recebendo as mesmas linhas (ex.: memória para getSaida() + console)
+    static SaidaVM todas(SaidaVM... saidas) {
+        return new SaidaVM() {
+            @Override
+            public void escreve(String linha) {
+                for (SaidaVM s : saidas) s.escreve(linha);
+            }
+
+            @Override
+            public void descarrega() {
+                for (SaidaVM s : saidas) s.descarrega();
+            }
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package virtualMachine;
+
+// resultado do Verificador para um Programa (imutável; fica anexado ao Programa verificado)
+public final class Verificacao {
+
+    private final boolean valido;
+    private final String motivo;
+    // profundidade da pilha antes de cada instrução, relativa à entrada do procedimento
+    // (no programa principal é o número de valores na pilha); -1 = inalcançável
+    private final int[] profundidade;
+    private final int procedimentos;
+    private final boolean recursivo;
+    private final int pilhaMaxima;
+    private final int enderecoMaximo;
+    private final int chamadasMaximas;
+
+    Verificacao(boolean valido, String motivo, int[] profundidade, int procedimentos, boolean recursivo,
+                int pilhaMaxima, int enderecoMaximo, int chamadasMaximas) {
+        this.valido = valido;
+        this.motivo = motivo;
+        this.profundidade = profundidade;
+        this.procedimentos = procedimentos;
+        this.recursivo = recursivo;
+        this.pilhaMaxima = pilhaMaxima;
+        this.enderecoMaximo = enderecoMaximo;
+        this.chamadasMaximas = chamadasMaximas;
+    }
+
+    static Verificacao rejeitado(String motivo) {
+        return new Verificacao(false, motivo, new int[0], 0, false, -1, -1, -1);
+    }
+
+    public boolean isValido() { return valido; }
+    // por que foi rejeitado (null se válido)
+    public String getMotivo() { return motivo; }
+    public int getProfundidade(int i) { return profundidade[i]; }
+    public int getProcedimentos() { return procedimentos; }
+    public boolean isRecursivo() { return recursivo; }
+    // maior número de valores na pilha em qualquer execução; -1 = sem limite (recursão)
+    public int getPilhaMaxima() { return pilhaMaxima; }
+    // maior endereço fixo usado (LDV/STR/STRK/ALLOC/DALLOC e células de quadro); -1 = nenhum
+    public int getEnderecoMaximo() { return enderecoMaximo; }
+    // maior aninhamento de CALL; -1 = sem limite (recursão)
+    public int getChamadasMaximas() { return chamadasMaximas; }
+
+    // posições de memória que bastam para qualquer execução; -1 = sem limite
+    public long getMemoriaNecessaria() {
+        if (!valido || recursivo) return -1;
+        return Math.max((long) enderecoMaximo + 1, pilhaMaxima);
+    }
+
+    // pode rodar sem as verificações por instrução (ExecucaoVerificada)
+    public boolean isRapido() {
+        return valido && !recursivo && getMemoriaNecessaria() <= Integer.MAX_VALUE;
+    }
+
+    public String resumo() {
+        if (!valido) return "Verificação: rejeitado (" + motivo + ")";
+        return "Verificação: " + procedimentos + " procedimentos, "
+                + (recursivo ? "recursivo (pilha sem limite)" : "pilha máxima " + pilhaMaxima)
+                + ", endereço máximo " + enderecoMaximo + (isRapido() ? ", modo rápido" : "");
+    }
+}
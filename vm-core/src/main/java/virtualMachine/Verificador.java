@@ -0,0 +1,349 @@
+package virtualMachine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// verificação estática feita no carregamento: interpretação abstrata sobre o grafo de fluxo
+// de cada procedimento (o programa principal a partir de 0 e cada destino de CALL), com a
+// profundidade da pilha antes de cada instrução. Rejeita programas inconsistentes:
+//   - pilha com menos valores do que a instrução desempilha;
+//   - profundidades diferentes chegando na mesma instrução;
+//   - RETURN fora de procedimento ou com valores acima do endereço de retorno;
+//   - START dentro de procedimento, CALL para o início do programa;
+//   - código compartilhado entre procedimentos (salto para dentro de outro);
+//   - instrução inválida ou endereço negativo alcançáveis.
+// CALL conta como efeito zero na pilha de quem chama (o chamado devolve tudo no RETURN).
+// Sem recursão, a altura máxima da pilha sai do grafo de chamadas; com o maior endereço
+// usado ela dá a memória necessária, e o Interpretador roda o programa sem as verificações
+// por instrução (ExecucaoVerificada). Os endereços de LDL/STL dependem da célula de quadro
+// e só são conferidos na execução.
+public final class Verificador {
+
+    private static final class Procedimento {
+        final int entrada;
+        // maior profundidade (relativa à entrada) sem contar os chamados
+        long maximo;
+        // {procedimento chamado, profundidade no CALL}
+        final List<int[]> chamadas = new ArrayList<>();
+        // 1 se houver CALL para o fim do programa (empilha o retorno e termina)
+        int aninhamento;
+
+        Procedimento(int entrada) { this.entrada = entrada; }
+    }
+
+    private static final class Inconsistente extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Inconsistente(String motivo) { super(motivo, null, false, false); }
+    }
+
+    private final Programa p;
+    private final int n;
+    private final int[] profundidade;
+    private final int[] dono;
+    private final int[] procedimentoDaEntrada;
+    private final List<Procedimento> procedimentos = new ArrayList<>();
+    private int[] fila = new int[64];
+    private int tamanhoFila;
+    private int enderecoMaximo = -1;
+
+    private Verificador(Programa p) {
+        this.p = p;
+        this.n = p.op.length;
+        this.profundidade = new int[n];
+        this.dono = new int[n];
+        this.procedimentoDaEntrada = new int[n];
+        Arrays.fill(profundidade, -1);
+        Arrays.fill(procedimentoDaEntrada, -1);
+    }
+
+    public static Verificacao verifica(Programa p) {
+        if (!p.ligado) return Verificacao.rejeitado("programa não ligado");
+        try {
+            return new Verificador(p).analisa();
+        } catch (Inconsistente e) {
+            return Verificacao.rejeitado(e.getMessage());
+        }
+    }
+
+    // o mesmo programa com a verificação anexada; inconsistente é erro de carregamento
+    public static Programa verificado(Programa p) {
+        Verificacao v = verifica(p);
+        if (!v.isValido()) throw new RuntimeException("Programa rejeitado pelo verificador: " + v.getMotivo());
+        return new Programa(p.op, p.a, p.b, p.simbolos, p.nomesRotulos, p.enderecosRotulos, p.ligado, v);
+    }
+
+    private Verificacao analisa() {
+        if (n > 0) novoProcedimento(0);
+        // a lista cresce enquanto os CALLs são encontrados
+        for (int k = 0; k < procedimentos.size(); k++) analisa(k);
+
+        int np = procedimentos.size();
+        long[] pilha = new long[np];
+        int[] aninhamento = new int[np];
+        boolean recursivo = np > 0 && grafoDeChamadas(pilha, aninhamento);
+        long pilhaMaxima = np == 0 || recursivo ? -1 : Math.min(pilha[0], Integer.MAX_VALUE);
+        return new Verificacao(true, null, profundidade, np, recursivo, (int) pilhaMaxima, enderecoMaximo,
+                np == 0 ? 0 : recursivo ? -1 : aninhamento[0]);
+    }
+
+    private int novoProcedimento(int entrada) {
+        procedimentos.add(new Procedimento(entrada));
+        procedimentoDaEntrada[entrada] = procedimentos.size() - 1;
+        return procedimentos.size() - 1;
+    }
+
+    private void analisa(int k) {
+        Procedimento proc = procedimentos.get(k);
+        if (profundidade[proc.entrada] >= 0) {
+            throw new Inconsistente("instrução " + proc.entrada + " é destino de CALL e também parte de outro procedimento");
+        }
+        profundidade[proc.entrada] = 0;
+        dono[proc.entrada] = k;
+        empilha(proc.entrada);
+
+        while (tamanhoFila > 0) {
+            int i = fila[--tamanhoFila];
+            int d = profundidade[i];
+            int op = p.op[i];
+            int a = p.a[i];
+            int b = p.b[i];
+            switch (op) {
+                case Opcodes.START:
+                    if (k != 0) throw new Inconsistente("START dentro de procedimento (instrução " + i + ")");
+                    segue(k, i + 1, 0);
+                    break;
+                case Opcodes.HLT:
+                    break;
+                case Opcodes.NULL:
+                    segue(k, i + 1, d);
+                    break;
+                case Opcodes.LDC:
+                case Opcodes.RD:
+                    maximo(proc, d + 1);
+                    segue(k, i + 1, d + 1);
+                    break;
+                case Opcodes.LDV:
+                    endereco(a, 1, i);
+                    maximo(proc, d + 1);
+                    segue(k, i + 1, d + 1);
+                    break;
+                case Opcodes.STR:
+                    precisa(d, 1, i);
+                    endereco(a, 1, i);
+                    segue(k, i + 1, d - 1);
+                    break;
+                case Opcodes.STRK:
+                    precisa(d, 1, i);
+                    endereco(a, 1, i);
+                    segue(k, i + 1, d);
+                    break;
+                case Opcodes.ENTR: {
+                    // salva M[a] e reserva as locais; o endereço delas só é conhecido na execução
+                    int locais = b > 0 ? b : 0;
+                    endereco(a, 1, i);
+                    maximo(proc, (long) d + 1 + locais);
+                    segue(k, i + 1, soma(d + 1, locais, i));
+                    break;
+                }
+                case Opcodes.SAIR: {
+                    int locais = b > 0 ? b : 0;
+                    precisa(d, soma(locais, 1, i), i);
+                    endereco(a, 1, i);
+                    segue(k, i + 1, d - locais - 1);
+                    break;
+                }
+                case Opcodes.LDL:
+                    endereco(a, 1, i);
+                    maximo(proc, d + 1);
+                    segue(k, i + 1, d + 1);
+                    break;
+                case Opcodes.STL:
+                    precisa(d, 1, i);
+                    endereco(a, 1, i);
+                    segue(k, i + 1, d - 1);
+                    break;
+                case Opcodes.INV:
+                case Opcodes.NEG:
+                    precisa(d, 1, i);
+                    segue(k, i + 1, d);
+                    break;
+                case Opcodes.PRN:
+                    precisa(d, 1, i);
+                    segue(k, i + 1, d - 1);
+                    break;
+                case Opcodes.JMP:
+                    segue(k, destino(a, i), d);
+                    break;
+                case Opcodes.JMPF:
+                    precisa(d, 1, i);
+                    segue(k, destino(a, i), d - 1);
+                    segue(k, i + 1, d - 1);
+                    break;
+                case Opcodes.CALL: {
+                    int e = destino(a, i);
+                    maximo(proc, d + 1);
+                    // CALL para o fim: o programa termina com o endereço de retorno na pilha
+                    if (e >= n) {
+                        proc.aninhamento = 1;
+                        break;
+                    }
+                    proc.chamadas.add(new int[] {chamado(e, i), d});
+                    segue(k, i + 1, d);
+                    break;
+                }
+                case Opcodes.RETURN:
+                    if (k == 0) throw new Inconsistente("RETURN fora de procedimento (instrução " + i + ")");
+                    if (d != 0) {
+                        throw new Inconsistente("RETURN com " + d + " valores acima do endereço de retorno (instrução " + i + ")");
+                    }
+                    break;
+                case Opcodes.ALLOC:
+                    if (b > 0) {
+                        endereco(a, b, i);
+                        maximo(proc, (long) d + b);
+                        segue(k, i + 1, soma(d, b, i));
+                    } else {
+                        segue(k, i + 1, d);
+                    }
+                    break;
+                case Opcodes.DALLOC:
+                    if (b > 0) {
+                        precisa(d, b, i);
+                        endereco(a, b, i);
+                        segue(k, i + 1, d - b);
+                    } else {
+                        segue(k, i + 1, d);
+                    }
+                    break;
+                default:
+                    if (Opcodes.ehBinaria(op)) {
+                        precisa(d, 2, i);
+                        segue(k, i + 1, d - 1);
+                    } else if (Opcodes.ehFundida(op)) {
+                        fundida(proc, k, i, d);
+                    } else {
+                        throw new Inconsistente("instrução inválida alcançável: " + p.simbolos[a] + " (instrução " + i + ")");
+                    }
+            }
+        }
+    }
+
+    // superinstrução: o efeito da sequência original, mais o caminho do limite de passos
+    // (só o LDV, seguindo pelas instruções originais)
+    private void fundida(Procedimento proc, int k, int i, int d) {
+        int op = p.op[i];
+        boolean constante = op == Opcodes.F_LDV_LDC_CMP_JMPF || op == Opcodes.F_LDV_LDC_OP_STR
+                || op == Opcodes.F_LDV_LDC_OP;
+        boolean salto = op == Opcodes.F_LDV_LDC_CMP_JMPF || op == Opcodes.F_LDV_LDV_CMP_JMPF;
+        int tamanho = Fusao.tamanho(op);
+        endereco(p.a[i], 1, i);
+        if (!constante) endereco(p.a[i + 1], 1, i);
+        maximo(proc, d + 2);
+        segue(k, i + 1, d + 1);
+        if (salto) {
+            segue(k, destino(p.a[i + 3], i + 3), d);
+            segue(k, i + 4, d);
+        } else if (tamanho == 4) {
+            endereco(p.a[i + 3], 1, i);
+            segue(k, i + 4, d);
+        } else {
+            segue(k, i + 3, d + 1);
+        }
+    }
+
+    private int chamado(int entrada, int i) {
+        if (entrada == 0) throw new Inconsistente("CALL para o início do programa (instrução " + i + ")");
+        int q = procedimentoDaEntrada[entrada];
+        if (q >= 0) return q;
+        if (profundidade[entrada] >= 0) {
+            throw new Inconsistente("CALL na instrução " + i + " entra no meio de outro procedimento (" + entrada + ")");
+        }
+        return novoProcedimento(entrada);
+    }
+
+    private void segue(int k, int j, int d) {
+        if (j >= n) return; // passou do fim: a execução termina
+        if (profundidade[j] < 0) {
+            profundidade[j] = d;
+            dono[j] = k;
+            empilha(j);
+        } else if (dono[j] != k) {
+            throw new Inconsistente("instrução " + j + " alcançada pelos procedimentos "
+                    + procedimentos.get(dono[j]).entrada + " e " + procedimentos.get(k).entrada);
+        } else if (profundidade[j] != d) {
+            throw new Inconsistente("profundidade da pilha diferente na instrução " + j + ": "
+                    + profundidade[j] + " e " + d);
+        }
+    }
+
+    private void empilha(int i) {
+        if (tamanhoFila == fila.length) fila = Arrays.copyOf(fila, tamanhoFila * 2);
+        fila[tamanhoFila++] = i;
+    }
+
+    private void precisa(int d, int valores, int i) {
+        if (d < valores) {
+            throw new Inconsistente(Opcodes.nome(p.op[i]) + " com " + d + " valores na pilha (instrução " + i + ")");
+        }
+    }
+
+    private void endereco(int a, int quantidade, int i) {
+        if (a < 0) throw new Inconsistente("endereço negativo " + a + " (instrução " + i + ")");
+        long ultimo = (long) a + quantidade - 1;
+        if (ultimo > Integer.MAX_VALUE - 1) throw new Inconsistente("endereço grande demais (instrução " + i + ")");
+        enderecoMaximo = Math.max(enderecoMaximo, (int) ultimo);
+    }
+
+    private static int soma(int d, int b, int i) {
+        long r = (long) d + b;
+        if (r > Integer.MAX_VALUE) throw new Inconsistente("pilha grande demais (instrução " + i + ")");
+        return (int) r;
+    }
+
+    private static void maximo(Procedimento proc, long d) {
+        proc.maximo = Math.max(proc.maximo, d);
+    }
+
+    // salto para o próprio índice avança uma instrução (como no Interpretador)
+    private static int destino(int alvo, int i) {
+        return alvo == i ? i + 1 : alvo;
+    }
+
+    // pilha máxima e aninhamento de CALL de cada procedimento (pós-ordem a partir do
+    // principal); true se houver ciclo, e aí os valores não servem
+    private boolean grafoDeChamadas(long[] pilha, int[] aninhamento) {
+        int np = procedimentos.size();
+        byte[] estado = new byte[np]; // 0 = novo, 1 = na pilha, 2 = pronto
+        int[] caminho = new int[np];
+        int[] proxima = new int[np];
+        int topo = 0;
+        caminho[topo++] = 0;
+        estado[0] = 1;
+        while (topo > 0) {
+            int atual = caminho[topo - 1];
+            List<int[]> chamadas = procedimentos.get(atual).chamadas;
+            if (proxima[atual] < chamadas.size()) {
+                int q = chamadas.get(proxima[atual]++)[0];
+                if (estado[q] == 1) return true;
+                if (estado[q] == 0) {
+                    estado[q] = 1;
+                    caminho[topo++] = q;
+                }
+                continue;
+            }
+            long maior = procedimentos.get(atual).maximo;
+            int profundo = procedimentos.get(atual).aninhamento;
+            for (int[] ch : chamadas) {
+                maior = Math.max(maior, ch[1] + 1 + pilha[ch[0]]);
+                profundo = Math.max(profundo, 1 + aninhamento[ch[0]]);
+            }
+            pilha[atual] = maior;
+            aninhamento[atual] = profundo;
+            estado[atual] = 2;
+            topo--;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,329 @@
+package virtualMachine;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Consumer;
+
+public class VirtualMachine {
+
+    private final String path;
+
+    // limite (em posições) da memória de cada execução
+    private int limiteMemoria = MemoriaVM.LIMITE_PADRAO;
+
+    // saída do programa além da cópia em memória do contexto (plugável)
+    private SaidaVM console = new SaidaBufferizada(System.out);
+    // mensagens da própria VM (resumos, erros) e rastros de exceção
+    private PrintStream mensagens = System.out;
+    private PrintStream erros = System.err;
+    // valores para RD (padrão: stdin, um por linha; a GUI usa um diálogo)
+    private EntradaVM entrada;
+
+    private final int STACK_OFFSET = 100;
+
+    // a execução anda em fatias deste tamanho (entre elas: cancelamento e observador)
+    private static final long FATIA = 100_000;
+    private volatile boolean cancelada;
+    // chamado na thread da execução ao fim de cada fatia (ex.: progresso da GUI)
+    private Consumer<ContextoExecucao> observador;
+
+    // fusão de superinstruções no carregamento (opcional)
+    private boolean fusao = false;
+    // otimização peephole da listagem antes de decodificar (opcional)
+    private boolean otimizar = false;
+    // verificação estática no carregamento: rejeita programas inconsistentes e roda os
+    // verificados sem recursão sem as verificações por instrução (opcional)
+    private boolean verificar = false;
+    // compila laços quentes para bytecode JVM (opcional)
+    private boolean jit = false;
+    // motor de execução (laço com switch ou nós encadeados)
+    private ModoExecucao modo = ModoExecucao.SWITCH;
+    // perfil por opcode/instrução/rótulo, com relatório no fim (opcional)
+    private boolean perfil = false;
+    // rastro binário dos últimos passos (0 = desligado); em arquivo mapeado se houver caminho
+    private int capacidadeRastro = 0;
+    private Path arquivoRastro;
+    // ponto de controle a cada 'intervaloControle' passos (null = desligado)
+    private Path arquivoControle;
+    private long intervaloControle;
+    // programas já carregados, compartilhável entre VMs (null = sempre carrega do arquivo)
+    private CacheProgramas cache;
+
+    // estado e resultado da última execução
+    private ContextoExecucao contexto;
+    private String erro;
+
+    private static final Set<String> OPCODES = Set.of(
+            "START","LDC","LDV","STR","ADD","SUB","MULT","DIVI",
+            "INV","NEG","AND","OR","CME","CMA","CEQ","CDIF","CMEQ","CMAQ",
+            "RD","PRN","JMP","JMPF","ALLOC","DALLOC","CALL","RETURN","HLT","NULL",
+            "STRK","ENTR","SAIR","LDL","STL"
+    );
+
+    public VirtualMachine(String path) {
+        this.path = path;
+    }
+
+    // decodifica e liga uma única vez: o laço de execução só trabalha com os vetores int[]
+    // (rótulo indefinido/duplicado já falha aqui, antes do primeiro passo).
+    // O Programa devolvido é imutável e pode ser executado várias vezes (inclusive em
+    // paralelo) com Interpretador + ContextoExecucao, sem ler o arquivo de novo.
+    // Com cache, um arquivo de mesmo conteúdo já carregado nem é relido.
+    public Programa carregaPrograma() throws IOException {
+        if (cache == null) return carrega(mensagens);
+        return cache.obtem(Path.of(path), "fusao=" + fusao + ",otimizar=" + otimizar + ",verificar=" + verificar,
+                this::carrega, mensagens);
+    }
+
+    private Programa carrega(PrintStream mensagens) throws IOException {
+        Programa programa = decodificaELiga(mensagens);
+        if (fusao) {
+            Fusao f = new Fusao();
+            programa = f.funde(programa);
+            mensagens.println(f.resumo());
+        }
+        if (verificar) {
+            programa = Verificador.verificado(programa);
+            mensagens.println(programa.getVerificacao().resumo());
+        }
+        return programa;
+    }
+
+    // Arquivos no formato binário (.mvdb) são apenas mapeados, sem parse de texto.
+    private Programa decodificaELiga(PrintStream mensagens) throws IOException {
+        if (otimizar) {
+            // peephole sobre a listagem (texto ou binário) antes de decodificar
+            OtimizadorPeephole otimizador = new OtimizadorPeephole();
+            List<LinhaVM> linhas = otimizador.otimiza(listaLinhas());
+            mensagens.println(otimizador.resumo());
+            return Ligador.liga(Decodificador.decodifica(linhas));
+        }
+        Path arquivo = Path.of(path);
+        if (ObjBinario.ehBinario(arquivo)) {
+            return ObjBinario.carrega(arquivo);
+        }
+        // texto: direto dos bytes para o Programa; null = caminho antigo (LinhaVM)
+        Programa lido = LeitorObj.le(arquivo);
+        return Ligador.liga(lido != null ? lido : Decodificador.decodifica(listaLinhas()));
+    }
+
+    // lê o arquivo e retorna lista de LinhaVM (sem alterações)
+    public List<LinhaVM> listaLinhas() {
+        List<LinhaVM> linhas = new ArrayList<>();
+        try {
+            if (ObjBinario.ehBinario(Path.of(path))) {
+                return ObjBinario.paraLinhas(ObjBinario.carrega(Path.of(path)));
+            }
+
+            File file = new File(path);
+            Scanner scanner = new Scanner(file);
+            int numeroLinha = 1;
+            while (scanner.hasNextLine()) {
+                String raw = scanner.nextLine();
+                if (raw == null) continue;
+                String line = raw.trim();
+                if (line.isEmpty()) continue;
+
+                LinhaVM l = new LinhaVM();
+                l.setLinha(numeroLinha++);
+
+                String rotulo = "";
+                String instr = "";
+                String var1 = "";
+                String var2 = "";
+
+                if (raw.contains("\t")) {
+                    String[] parts = raw.split("\t", 2);
+                    rotulo = parts[0].trim();
+                    if (parts.length == 1 || parts[1].trim().equalsIgnoreCase("NULL")) {
+                        instr = "";
+                    } else {
+                        String resto = parts[1].trim();
+                        String[] toks = resto.split("\\s+");
+                        if (toks.length >= 1) instr = toks[0].trim().toUpperCase();
+                        if (toks.length >= 2) var1 = toks[1].trim().replaceAll(",", "");
+                        if (toks.length >= 3) var2 = toks[2].trim().replaceAll(",", "");
+                    }
+                } else {
+                    String[] parts = line.split("\\s+");
+                    if (parts.length == 0) continue;
+                    String first = parts[0].trim().toUpperCase();
+                    if (OPCODES.contains(first)) {
+                        instr = first;
+                        if (parts.length >= 2) var1 = parts[1].trim().replaceAll(",", "");
+                        if (parts.length >= 3) var2 = parts[2].trim().replaceAll(",", "");
+                    } else {
+                        rotulo = parts[0].trim();
+                        if (parts.length == 1) {
+                            instr = "";
+                        } else {
+                            String second = parts[1].trim().toUpperCase();
+                            if (second.equalsIgnoreCase("NULL")) {
+                                instr = "";
+                            } else if (OPCODES.contains(second)) {
+                                instr = second;
+                                if (parts.length >= 3) var1 = parts[2].trim().replaceAll(",", "");
+                                if (parts.length >= 4) var2 = parts[3].trim().replaceAll(",", "");
+                            } else {
+                                instr = second;
+                                if (parts.length >= 3) var1 = parts[2].trim().replaceAll(",", "");
+                                if (parts.length >= 4) var2 = parts[3].trim().replaceAll(",", "");
+                            }
+                        }
+                    }
+                }
+
+                l.setRotulo(rotulo);
+                l.setInstrucao(instr == null ? "" : instr);
+                l.setVar1(var1 == null ? "" : var1);
+                l.setVar2(var2 == null ? "" : var2);
+                linhas.add(l);
+            }
+            scanner.close();
+            return linhas;
+        } catch (Exception e) {
+            mensagens.println("Erro ao ler arquivo: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    // principal: analisa o .obj e executa, seguindo exatamente a semântica do Python.
+    // Cada chamada usa um ContextoExecucao novo; o Programa carregado não guarda estado.
+    public void analisaObj() {
+        if (entrada == null) entrada = new EntradaStream(System.in);
+        contexto = new ContextoExecucao(entrada, console, limiteMemoria);
+        contexto.setMensagens(mensagens);
+        if (perfil) contexto.setPerfilador(new Perfilador());
+        erro = null;
+        cancelada = false;
+        Rastro rastro = null;
+        try {
+            if (capacidadeRastro > 0) {
+                rastro = arquivoRastro != null
+                        ? Rastro.arquivo(arquivoRastro, capacidadeRastro)
+                        : Rastro.memoria(capacidadeRastro);
+                contexto.setRastro(rastro);
+            }
+            Programa programa = carregaPrograma();
+            Interpretador interpretador = new Interpretador(modo, jit);
+            boolean concluida = arquivoControle == null
+                    ? executaEmFatias(programa, interpretador, null, FATIA)
+                    : executaComControle(programa, interpretador);
+            if (!concluida) {
+                erro = "Execução cancelada.";
+                mensagens.println("Execução cancelada. passos=" + contexto.getPassos());
+                return;
+            }
+            mensagens.println("Execução finalizada. passos=" + contexto.getPassos()
+                    + (fusao ? " despachos=" + contexto.getDespachos() : ""));
+            mensagens.println("Saída final:\n" + contexto.getSaida());
+            if (perfil) contexto.getPerfilador().relatorio(mensagens, 20);
+        } catch (Exception e) {
+            contexto.descarregaSaida();
+            erro = e.getMessage();
+            mensagens.println("Erro execução: " + e.getMessage());
+            e.printStackTrace(erros);
+            if (rastro != null) {
+                mensagens.println("Últimos passos antes do erro:");
+                rastro.imprime(mensagens, 20, 0, Integer.MAX_VALUE);
+            }
+        } finally {
+            if (rastro != null) {
+                try {
+                    rastro.close();
+                } catch (IOException e) {
+                    mensagens.println("Erro ao fechar rastro: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    // executa em fatias gravando um ponto de controle entre elas; se o arquivo já tiver
+    // estado deste programa (de uma execução interrompida), continua de lá (a entrada é relida desde o início e os valores
+    // já consumidos são descartados)
+    private boolean executaComControle(Programa programa, Interpretador interpretador) throws IOException {
+        try (PontoControle controle = PontoControle.abre(arquivoControle, programa)) {
+            if (controle.temEstado()) {
+                ContextoExecucao c = controle.restaura(entrada, console, limiteMemoria, true);
+                c.setMensagens(mensagens);
+                c.setPerfilador(contexto.getPerfilador());
+                c.setRastro(contexto.getRastro());
+                contexto = c;
+                mensagens.println("Retomando do ponto de controle: passo " + c.getPassos()
+                        + ", " + c.getLinhasSaida() + " linhas já escritas");
+            }
+            boolean fim = executaEmFatias(programa, interpretador, controle, intervaloControle);
+            // terminou: o ponto de controle não serve mais, e a próxima execução começa do zero
+            if (fim) controle.descarta();
+            return fim;
+        }
+    }
+
+    // entre uma fatia e outra grava o ponto de controle (se houver), avisa o observador e
+    // atende o cancelamento; false se foi cancelada
+    private boolean executaEmFatias(Programa programa, Interpretador interpretador,
+                                    PontoControle controle, long fatia) throws IOException {
+        boolean fim;
+        do {
+            fim = interpretador.executa(programa, contexto, fatia);
+            if (controle != null) controle.grava(contexto);
+            if (observador != null) observador.accept(contexto);
+        } while (!fim && !cancelada);
+        return fim;
+    }
+
+    // visão em List<Memoria> criada sob demanda a partir do int[]
+    public List<Memoria> getMemoria() { return contexto == null ? null : contexto.getMemoria().comoLista(); }
+    public MemoriaVM getMemoriaVM() { return contexto == null ? null : contexto.getMemoria(); }
+    // estado da última execução
+    public ContextoExecucao getContexto() { return contexto; }
+
+    // limite (em posições) até onde a memória pode crescer
+    public void setLimiteMemoria(int limiteMemoria) { this.limiteMemoria = limiteMemoria; }
+    public String getSaida() { return contexto == null ? null : contexto.getSaida(); }
+    // onde a saída é escrita além da cópia em memória (padrão: console com buffer)
+    public void setSaidaVM(SaidaVM console) { this.console = console; }
+    public void setEntrada(EntradaVM entrada) { this.entrada = entrada; }
+    // redireciona mensagens e rastros de erro da VM (ex.: execução em lote silenciosa)
+    public void setMensagens(PrintStream mensagens) {
+        this.mensagens = mensagens;
+        this.erros = mensagens;
+    }
+
+    public long getPassos() { return contexto == null ? 0 : contexto.getPassos(); }
+    public boolean isLimiteExcedido() { return contexto != null && contexto.isLimiteExcedido(); }
+    // mensagem do erro que interrompeu a última execução (null se terminou normalmente)
+    public String getErro() { return erro; }
+    public EntradaVM getEntrada() { return entrada; }
+
+    public void setFusao(boolean fusao) { this.fusao = fusao; }
+    public void setOtimizar(boolean otimizar) { this.otimizar = otimizar; }
+    // programa rejeitado pelo verificador falha no carregamento, antes do primeiro passo
+    public void setVerificar(boolean verificar) { this.verificar = verificar; }
+    // o JIT só vale para o modo SWITCH
+    public void setJit(boolean jit) { this.jit = jit; }
+    // o perfil força o modo SWITCH sem JIT durante a execução
+    public void setPerfil(boolean perfil) { this.perfil = perfil; }
+    // rastro dos últimos 'capacidade' passos; com arquivo != null grava num .mvdt mapeado
+    public void setRastro(int capacidade, Path arquivo) {
+        this.capacidadeRastro = capacidade;
+        this.arquivoRastro = arquivo;
+    }
+    // grava o estado em 'arquivo' a cada 'intervalo' passos e retoma dele na próxima execução
+    public void setPontoControle(Path arquivo, long intervalo) {
+        this.arquivoControle = arquivo;
+        this.intervaloControle = intervalo;
+    }
+    public void setCache(CacheProgramas cache) { this.cache = cache; }
+    public CacheProgramas getCache() { return cache; }
+    public Rastro getRastro() { return contexto == null ? null : contexto.getRastro(); }
+    public Perfilador getPerfilador() { return contexto == null ? null : contexto.getPerfilador(); }
+    // interrompe a execução em andamento no fim da fatia atual (pode ser chamado de outra thread)
+    public void cancela() { cancelada = true; }
+    public void setObservador(Consumer<ContextoExecucao> observador) { this.observador = observador; }
+    public void setModo(ModoExecucao modo) { this.modo = modo; }
+    public ModoExecucao getModo() { return modo; }
+}
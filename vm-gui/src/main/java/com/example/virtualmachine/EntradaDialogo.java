@@ -0,0 +1,40 @@
+package com.example.virtualmachine;
+
+import javafx.application.Platform;
+import javafx.scene.control.TextInputDialog;
+import virtualMachine.EntradaVM;
+
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+// entrada do RD pela GUI: um TextInputDialog por valor. A execução roda fora da thread do
+// JavaFX, então o diálogo é aberto nela (runLater) e a execução espera a resposta.
+public class EntradaDialogo implements EntradaVM {
+
+    @Override
+    public OptionalInt le() {
+        if (Platform.isFxApplicationThread()) return pergunta();
+        FutureTask<OptionalInt> resposta = new FutureTask<>(this::pergunta);
+        Platform.runLater(resposta);
+        try {
+            return resposta.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return OptionalInt.empty();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException r) throw r;
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private OptionalInt pergunta() {
+        TextInputDialog dialog = new TextInputDialog("");
+        dialog.setTitle("Entrada");
+        dialog.setHeaderText("Digite um inteiro:");
+        Optional<String> user = dialog.showAndWait();
+        if (user.isEmpty()) return OptionalInt.empty();
+        return OptionalInt.of(EntradaVM.converte(user.get()));
+    }
+}
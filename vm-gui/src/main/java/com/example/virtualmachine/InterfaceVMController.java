@@ -0,0 +1,245 @@
+package com.example.virtualmachine;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
+import javafx.fxml.FXML;
+import javafx.scene.control.*;
+import javafx.stage.FileChooser;
+import javafx.util.Duration;
+import virtualMachine.CacheProgramas;
+import virtualMachine.LinhaVM;
+import virtualMachine.Memoria;
+import virtualMachine.SaidaBufferizada;
+import virtualMachine.SaidaCallback;
+import virtualMachine.SaidaVM;
+import virtualMachine.VirtualMachine;
+
+import java.io.File;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+public class InterfaceVMController {
+
+    private File objFile;
+    private VirtualMachine vm;
+    // linhas da tabela de memória, lidas direto da MemoriaVM da última execução
+    private final MemoriaVisao memoria = new MemoriaVisao();
+    // reexecutar (ou reabrir o mesmo arquivo) não decodifica o programa de novo
+    private static final CacheProgramas CACHE = new CacheProgramas(16, 2_000_000);
+
+    // a execução roda numa thread virtual e publica o progresso ao fim de cada fatia; a tela
+    // lê só o mais recente, QUADROS_POR_SEGUNDO vezes por segundo
+    private static final int QUADROS_POR_SEGUNDO = 20;
+    private static final int LIMITE_CAUDA = 4000;
+    private final AtomicReference<Progresso> progresso = new AtomicReference<>();
+    private Timeline quadros;
+    private Task<Void> tarefa;
+    private long passosMostrados;
+    private long instanteMostrado;
+    private String caudaMostrada;
+
+    @FXML private TableView<LinhaVM> tabela;
+    @FXML private TableColumn<LinhaVM, Integer> linha;
+    @FXML private TableColumn<LinhaVM, String> rotulo;
+    @FXML private TableColumn<LinhaVM, String> instrucao;
+    @FXML private TableColumn<LinhaVM, String> atributo1;
+    @FXML private TableColumn<LinhaVM, String> atributo2;
+
+    @FXML private TableView<Memoria> tabelaMemoria;
+    @FXML private TableColumn<Memoria, Integer> valor;
+    @FXML private TableColumn<Memoria, Integer> endereco;
+
+    @FXML private TextField irPara;
+    @FXML private CheckBox soNaoNulos;
+
+    @FXML private TextArea saidaDeDados;
+    @FXML private Label estado;
+
+    @FXML private CheckBox otimizar;
+    @FXML private Button escolher;
+    @FXML private Button executarBotao;
+    @FXML private Button cancelarBotao;
+
+    @FXML
+    protected void initialize() {
+        // colunas por lambda (sem reflexão por célula como no PropertyValueFactory)
+        linha.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(c.getValue().getLinha()));
+        rotulo.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(c.getValue().getRotulo()));
+        instrucao.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(c.getValue().getInstrucao()));
+        atributo1.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(c.getValue().getVar1()));
+        atributo2.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(c.getValue().getVar2()));
+
+        endereco.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(c.getValue().getEndereco()));
+        valor.setCellValueFactory(c -> new ReadOnlyObjectWrapper<>(c.getValue().getValor()));
+        tabelaMemoria.setItems(memoria);
+
+        quadros = new Timeline(new KeyFrame(Duration.millis(1000.0 / QUADROS_POR_SEGUNDO), e -> mostraProgresso()));
+        quadros.setCycleCount(Animation.INDEFINITE);
+    }
+
+    @FXML
+    protected void openFileVM() {
+
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Escolha um arquivo .obj");
+
+        objFile = fileChooser.showOpenDialog(null);
+
+        if (objFile == null) {
+            Alert alert = new Alert(Alert.AlertType.WARNING, "Nenhum arquivo selecionado.");
+            alert.show();
+            return;
+        }
+
+        vm = new VirtualMachine(objFile.getAbsolutePath());
+        vm.setCache(CACHE);
+
+        // Carrega linhas do arquivo
+        var linhas = vm.listaLinhas();
+        tabela.setItems(FXCollections.observableArrayList(linhas));
+
+        // limpa saída
+        memoria.atualiza(null);
+        saidaDeDados.setText("");
+        estado.setText("");
+    }
+
+    @FXML
+    protected void executar() {
+
+        if (vm == null) {
+            Alert alert = new Alert(Alert.AlertType.ERROR, "Nenhum arquivo carregado!");
+            alert.show();
+            return;
+        }
+
+        if (tarefa != null && tarefa.isRunning()) return;
+
+        vm.setOtimizar(otimizar.isSelected());
+        vm.setEntrada(new EntradaDialogo());
+        CaudaSaida cauda = new CaudaSaida();
+        vm.setSaidaVM(SaidaVM.todas(new SaidaCallback(cauda), new SaidaBufferizada(System.out)));
+        vm.setObservador(c -> progresso.set(
+                new Progresso(c.getPassos(), c.getPc(), c.getMemoria().getS() + 1, cauda.texto())));
+
+        VirtualMachine executada = vm;
+        tarefa = new Task<>() {
+            @Override
+            protected Void call() {
+                executada.analisaObj();
+                return null;
+            }
+        };
+        tarefa.setOnSucceeded(e -> termina(executada, null));
+        tarefa.setOnFailed(e -> termina(executada, tarefa.getException()));
+
+        progresso.set(null);
+        passosMostrados = 0;
+        instanteMostrado = System.nanoTime();
+        caudaMostrada = null;
+        saidaDeDados.setText("");
+        estado.setText("Executando...");
+        emExecucao(true);
+        quadros.play();
+        Thread execucao = new Thread(tarefa, "vm-execucao");
+        execucao.setDaemon(true);
+        execucao.start();
+    }
+
+    @FXML
+    protected void cancelar() {
+        if (tarefa != null && tarefa.isRunning()) vm.cancela();
+    }
+
+    private void termina(VirtualMachine executada, Throwable falha) {
+        quadros.stop();
+        progresso.set(null);
+        emExecucao(false);
+
+        memoria.atualiza(executada.getMemoriaVM());
+        saidaDeDados.setText(executada.getSaida());
+        String fim = falha != null ? "erro: " + falha : executada.getErro() != null ? executada.getErro() : "finalizada";
+        estado.setText("passos=" + executada.getPassos() + " | " + fim);
+    }
+
+    private void emExecucao(boolean executando) {
+        escolher.setDisable(executando);
+        executarBotao.setDisable(executando);
+        cancelarBotao.setDisable(!executando);
+    }
+
+    // roda no ritmo dos quadros: mostra só o progresso mais recente, se houver um novo
+    private void mostraProgresso() {
+        Progresso p = progresso.getAndSet(null);
+        if (p == null) return;
+        long agora = System.nanoTime();
+        double porSegundo = (p.passos - passosMostrados) * 1e9 / Math.max(1, agora - instanteMostrado);
+        passosMostrados = p.passos;
+        instanteMostrado = agora;
+        estado.setText(String.format(Locale.ROOT, "passos=%d (%.0f/s)  pc=%d  pilha=%d",
+                p.passos, porSegundo, p.pc, p.pilha));
+        if (p.cauda != caudaMostrada) {
+            caudaMostrada = p.cauda;
+            saidaDeDados.setText(p.cauda);
+            saidaDeDados.end();
+        }
+    }
+
+    @FXML
+    protected void filtraMemoria() {
+        memoria.setSoNaoNulos(soNaoNulos.isSelected());
+    }
+
+    @FXML
+    protected void irParaEndereco() {
+        int alvo;
+        try {
+            alvo = Integer.parseInt(irPara.getText().trim());
+        } catch (NumberFormatException e) {
+            new Alert(Alert.AlertType.WARNING, "Endereço inválido: " + irPara.getText()).show();
+            return;
+        }
+        int l = memoria.linha(alvo);
+        if (l < 0) return;
+        tabelaMemoria.scrollTo(l);
+        tabelaMemoria.getSelectionModel().clearAndSelect(l);
+    }
+
+    // fotografia do progresso entre duas fatias
+    private static final class Progresso {
+        final long passos;
+        final int pc;
+        final int pilha;
+        final String cauda;
+
+        Progresso(long passos, int pc, int pilha, String cauda) {
+            this.passos = passos;
+            this.pc = pc;
+            this.pilha = pilha;
+            this.cauda = cauda;
+        }
+    }
+
+    // últimos caracteres da saída; só a thread da execução mexe nela
+    private static final class CaudaSaida implements Consumer<String> {
+        private final StringBuilder texto = new StringBuilder();
+        private String copia = "";
+
+        @Override
+        public void accept(String bloco) {
+            texto.append(bloco);
+            if (texto.length() > LIMITE_CAUDA) texto.delete(0, texto.length() - LIMITE_CAUDA);
+            copia = null;
+        }
+
+        String texto() {
+            if (copia == null) copia = texto.toString();
+            return copia;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.virtualmachine;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableListBase;
+import virtualMachine.Memoria;
+import virtualMachine.MemoriaVM;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+// lista da tabela de memória: as linhas são criadas sob demanda (a TableView só pede as
+// visíveis) a partir de uma cópia int[] dos valores, sem um Memoria por posição.
+// Mostra a faixa tocada [0, tamanho) ou só as faixas de valores diferentes de zero, e
+// atualiza() avisa a tabela só das posições que mudaram desde a atualização anterior.
+public class MemoriaVisao extends ObservableListBase<Memoria> {
+
+    // estado mostrado; o anterior é mantido para o diff (e para a lista de removidos)
+    private Quadro atual = new Quadro();
+    private Quadro anterior = new Quadro();
+    private boolean soNaoNulos;
+
+    @Override
+    public Memoria get(int linha) {
+        if (linha < 0 || linha >= size()) throw new IndexOutOfBoundsException(linha);
+        int e = atual.endereco(linha, soNaoNulos);
+        return new Memoria(e, atual.valores[e]);
+    }
+
+    @Override
+    public int size() {
+        return atual.linhas(soNaoNulos);
+    }
+
+    // linha que mostra o endereço (ou a mais próxima depois dele, se ele estiver oculto); -1 se vazia
+    public int linha(int endereco) {
+        return atual.linha(endereco, soNaoNulos);
+    }
+
+    public boolean isSoNaoNulos() { return soNaoNulos; }
+
+    public void setSoNaoNulos(boolean soNaoNulos) {
+        if (this.soNaoNulos == soNaoNulos) return;
+        List<Memoria> removidos = linhas(atual, this.soNaoNulos);
+        this.soNaoNulos = soNaoNulos;
+        substitui(removidos);
+    }
+
+    // lê a memória (null = vazia) e avisa só o que mudou
+    public void atualiza(MemoriaVM memoria) {
+        Quadro velho = atual;
+        Quadro novo = anterior;
+        novo.carrega(memoria);
+
+        anterior = velho;
+        atual = novo;
+
+        if (!novo.mesmasLinhas(velho, soNaoNulos)) {
+            substitui(linhas(velho, soNaoNulos));
+            return;
+        }
+        beginChange();
+        int comum = Math.min(velho.tamanho, novo.tamanho);
+        for (int e = 0; e < comum; e++) {
+            if (velho.valores[e] != novo.valores[e]) nextUpdate(novo.linha(e, soNaoNulos));
+        }
+        // no modo "tocadas" a memória pode crescer sem mudar as linhas anteriores
+        if (!soNaoNulos && novo.tamanho > velho.tamanho) nextAdd(velho.tamanho, novo.tamanho);
+        endChange();
+    }
+
+    // troca tudo; os removidos são gerados sob demanda a partir do quadro antigo
+    private void substitui(List<Memoria> removidos) {
+        int adicionados = size();
+        if (removidos.isEmpty() && adicionados == 0) return;
+        fireChange(new Substituicao(removidos, adicionados));
+    }
+
+    private static List<Memoria> linhas(Quadro q, boolean soNaoNulos) {
+        return new AbstractList<>() {
+            @Override
+            public Memoria get(int linha) {
+                int e = q.endereco(linha, soNaoNulos);
+                return new Memoria(e, q.valores[e]);
+            }
+
+            @Override
+            public int size() { return q.linhas(soNaoNulos); }
+        };
+    }
+
+    // cópia dos valores + faixas não nulas: [inicios[k], inicios[k] + (acumulado[k+1] - acumulado[k]))
+    private static final class Quadro {
+        int[] valores = new int[0];
+        int tamanho;
+        int[] inicios = new int[0];
+        int[] acumulado = new int[1];
+        int faixas;
+
+        void carrega(MemoriaVM m) {
+            tamanho = m == null ? 0 : m.tamanho();
+            if (valores.length < tamanho) valores = new int[tamanho];
+            if (m != null) m.copia(valores);
+
+            faixas = 0;
+            int e = 0;
+            while (e < tamanho) {
+                if (valores[e] == 0) {
+                    e++;
+                    continue;
+                }
+                int inicio = e;
+                while (e < tamanho && valores[e] != 0) e++;
+                if (faixas == inicios.length) {
+                    inicios = Arrays.copyOf(inicios, Math.max(8, faixas * 2));
+                    acumulado = Arrays.copyOf(acumulado, inicios.length + 1);
+                }
+                inicios[faixas] = inicio;
+                acumulado[faixas + 1] = acumulado[faixas] + (e - inicio);
+                faixas++;
+            }
+        }
+
+        int linhas(boolean soNaoNulos) {
+            return soNaoNulos ? acumulado[faixas] : tamanho;
+        }
+
+        int endereco(int linha, boolean soNaoNulos) {
+            if (!soNaoNulos) return linha;
+            // última faixa com acumulado <= linha
+            int k = Arrays.binarySearch(acumulado, 0, faixas + 1, linha);
+            if (k < 0) k = -k - 2;
+            return inicios[k] + (linha - acumulado[k]);
+        }
+
+        int linha(int endereco, boolean soNaoNulos) {
+            int n = linhas(soNaoNulos);
+            if (n == 0) return -1;
+            if (endereco < 0) return 0;
+            if (!soNaoNulos) return Math.min(endereco, n - 1);
+            // última faixa que começa em ou antes do endereço
+            int k = Arrays.binarySearch(inicios, 0, faixas, endereco);
+            if (k < 0) k = -k - 2;
+            if (k < 0) return 0;
+            int comprimento = acumulado[k + 1] - acumulado[k];
+            if (endereco < inicios[k] + comprimento) return acumulado[k] + (endereco - inicios[k]);
+            return Math.min(acumulado[k + 1], n - 1);
+        }
+
+        // mesmas linhas para os mesmos endereços (só valores podem ter mudado)
+        boolean mesmasLinhas(Quadro outro, boolean soNaoNulos) {
+            if (!soNaoNulos) return tamanho >= outro.tamanho;
+            if (faixas != outro.faixas) return false;
+            for (int k = 0; k < faixas; k++) {
+                if (inicios[k] != outro.inicios[k] || acumulado[k + 1] != outro.acumulado[k + 1]) return false;
+            }
+            return true;
+        }
+    }
+
+    // uma única mudança "tudo removido, tudo adicionado", sem copiar as linhas removidas
+    private final class Substituicao extends ListChangeListener.Change<Memoria> {
+        private final List<Memoria> removidos;
+        private final int adicionados;
+        private int cursor = -1;
+
+        Substituicao(List<Memoria> removidos, int adicionados) {
+            super(MemoriaVisao.this);
+            this.removidos = removidos;
+            this.adicionados = adicionados;
+        }
+
+        @Override
+        public boolean next() { return ++cursor == 0; }
+
+        @Override
+        public void reset() { cursor = -1; }
+
+        @Override
+        public int getFrom() { return 0; }
+
+        @Override
+        public int getTo() { return adicionados; }
+
+        @Override
+        public List<Memoria> getRemoved() { return removidos; }
+
+        @Override
+        protected int[] getPermutation() { return new int[0]; }
+    }
+}
@@ -4,7 +4,8 @@ module com.example.virtualmachine {
 
     requires org.kordamp.bootstrapfx.core;
 
+    requires vm.core;
+
     opens com.example.virtualmachine to javafx.base, javafx.fxml;
-    opens virtualMachine to javafx.base;  // Adicione esta linha
     exports com.example.virtualmachine;
 }